@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for the stages of the book goal.
+ *
+ * Each operation of walk processes one page and each operation of
+ * copy copies one asset, cycling through the corpus, so the results
+ * (and the gc.alloc.rate.norm reported by "-prof gc") are per page
+ * or per asset.  Each operation of walk or copy starts with a fresh
+ * report, as a run does.  An operation of book is a complete run of
+ * the goal, by a new mojo.
+ *
+ * Run with, e.g.,
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="BookBenchmark -p pages=1000 -prof gc"
+ *
+ * Larger corpora, e.g., -p pages=100000, take a long time to run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookBenchmark {
+    /**
+     * Number of pages in the corpus.
+     */
+    @Param({ "100", "1000", "10000" })
+    public int pages;
+
+    /**
+     * Number of sections per page.
+     */
+    @Param({ "4" })
+    public int sections;
+
+    /**
+     * Number of assets in the corpus.
+     */
+    @Param({ "100" })
+    public int assets;
+
+    /**
+     * Size of each asset.
+     */
+    @Param({ "16384", "1048576" })
+    public int assetSize;
+
+    /**
+     * Number of threads for the book run.
+     */
+    @Param({ "1" })
+    public int threads;
+
+    private Corpus corpus;
+    private File bookDir;
+    private BookMojo mojo;
+    private int page;
+
+    /**
+     * The next asset to copy.  Its copy is removed before each
+     * invocation, so that it's really copied.
+     */
+    @State(Scope.Benchmark)
+    public static class Asset {
+        int next;
+
+        @Setup(Level.Invocation)
+        public void removeCopy(BookBenchmark b) {
+            new File(b.bookDir, b.corpus.assets.get(next)).delete();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, MojoExecutionException {
+        corpus = new Corpus(pages, sections, 1, assets, assetSize);
+        bookDir = new File(corpus.dir, "book");
+        mojo = mojo();
+        mojo.execute();         // initializes the mojo, and scans the files
+    }
+
+    /**
+     * Start with a new report, and nothing seen, so that what the
+     * operations record doesn't pile up.  The index of the files
+     * is kept.
+     */
+    @Setup(Level.Invocation)
+    public void reset() throws MojoExecutionException {
+        mojo.init();
+    }
+
+    /**
+     * Return a new mojo for the corpus.
+     */
+    private BookMojo mojo() {
+        BookMojo m = new BookMojo();
+        m.setLog(new QuietLog());
+        m.startPage = "title.adoc";
+        m.book = "book.adoc";
+        m.sourceDirectory = corpus.dir;
+        m.bookDirectory = bookDir;
+        m.threads = threads;
+        return m;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        corpus.delete();
+    }
+
+    @Benchmark
+    public void walk() throws IOException {
+        int i = page;
+        page = (i + 1) % corpus.pages.size();
+        mojo.walk(corpus.pages.get(i));
+    }
+
+    @Benchmark
+    public boolean copy(Asset a) throws IOException {
+        int i = a.next;
+        a.next = (i + 1) % corpus.assets.size();
+        return mojo.copy(corpus.assets.get(i));
+    }
+
+    @Benchmark
+    public void book() throws MojoExecutionException {
+        mojo().execute();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A synthetic jbake content directory for the benchmarks.
+ *
+ * The pages are title.adoc followed by page00000.adoc, page00001.adoc,
+ * etc., linked by "next" and "prev" headers.  Each page has a number
+ * of sections, some of which are chapters, each with a number of
+ * [[tag]] lines before the section title.  Some of the underlines
+ * have the wrong length.  There are also a number of binary assets
+ * that are not part of the chain.
+ *
+ * The content is generated from a fixed seed, so the same parameters
+ * always produce the same corpus.
+ */
+final class Corpus {
+    final File dir;
+    final List<String> pages = new ArrayList<>();
+    final List<String> assets = new ArrayList<>();
+    final List<String> lines = new ArrayList<>();	// all body lines
+    final List<String> titles = new ArrayList<>();	// all section titles
+
+    private static final char[] UNDERLINES = { '-', '~', '^' };
+
+    /**
+     * Create a corpus in a new temporary directory.
+     *
+     * @param npages	number of pages, in addition to the title page
+     * @param sections	number of sections per page
+     * @param tags	number of tag lines before each section
+     * @param nassets	number of assets
+     * @param assetSize	size of each asset, in bytes
+     */
+    Corpus(int npages, int sections, int tags, int nassets, int assetSize)
+                                throws IOException {
+        dir = Files.createTempDirectory("doc-bench").toFile();
+        Random rand = new Random(npages * 31 + sections);
+        pages.add("title.adoc");
+        for (int i = 0; i < npages; i++)
+            pages.add(String.format("page%05d.adoc", i));
+        for (int i = 0; i < pages.size(); i++)
+            write(i, sections, tags, rand);
+        byte[] data = new byte[assetSize];
+        for (int i = 0; i < nassets; i++) {
+            rand.nextBytes(data);
+            String name = String.format("image%05d.png", i);
+            Files.write(new File(dir, name).toPath(), data);
+            assets.add(name);
+        }
+    }
+
+    private void write(int i, int sections, int tags, Random rand)
+                                throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("type=page\n");
+        sb.append("status=published\n");
+        sb.append("title=Page ").append(i).append('\n');
+        if (i > 0)
+            sb.append("prev=").append(html(pages.get(i - 1))).append('\n');
+        if (i + 1 < pages.size())
+            sb.append("next=").append(html(pages.get(i + 1))).append('\n');
+        sb.append("~~~~~~\n");
+        sb.append("= Page ").append(i).append("\n\n");
+        for (int s = 0; s < sections; s++) {
+            for (int t = 0; t < tags; t++) {
+                switch (rand.nextInt(3)) {
+                case 0:
+                    sb.append("[[GS").append(i).append('X').append(s)
+                        .append('X').append(t).append("]]\n");
+                    break;
+                case 1:
+                    sb.append("[[gs").append(i).append('x').append(s)
+                        .append('x').append(t).append("]]\n");
+                    break;
+                default:
+                    sb.append("[[sect-").append(i).append('-').append(s)
+                        .append('-').append(t).append("]]\n");
+                    break;
+                }
+            }
+            sb.append('\n');
+            String title = s == 0 && rand.nextInt(4) == 0 ?
+                                (i + 1) + " Chapter " + i :
+                                "Section " + i + "." + s + " of the page";
+            titles.add(title);
+            int len = title.length();
+            if (rand.nextInt(20) == 0)
+                len += rand.nextInt(3) + 1;     // wrong length
+            char u = UNDERLINES[rand.nextInt(UNDERLINES.length)];
+            sb.append(title).append('\n');
+            for (int k = 0; k < len; k++)
+                sb.append(u);
+            sb.append("\n\n");
+            for (int p = 0; p < 3; p++) {
+                sb.append("Some text in paragraph ").append(p)
+                    .append(" of section ").append(s)
+                    .append(", see link:").append(html(pages.get(0)))
+                    .append("#top[the title].\n\n");
+            }
+            sb.append("----\nsome code\n----\n\n");
+        }
+        String content = sb.toString();
+        Files.write(new File(dir, pages.get(i)).toPath(),
+                    content.getBytes(StandardCharsets.UTF_8));
+        String body = content.substring(content.indexOf("~~~~~~\n") + 7);
+        lines.addAll(Arrays.asList(body.split("\n")));
+    }
+
+    private static String html(String page) {
+        return page.replace(".adoc", ".html");
+    }
+
+    /**
+     * Remove the corpus and anything written into its directory.
+     */
+    void delete() throws IOException {
+        delete(dir);
+    }
+
+    static void delete(File f) throws IOException {
+        File[] files = f.listFiles();
+        if (files != null) {
+            for (File c : files)
+                delete(c);
+        }
+        Files.deleteIfExists(f.toPath());
+    }
+}
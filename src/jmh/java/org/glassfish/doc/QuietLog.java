@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A Log that discards everything, so that the warnings produced
+ * by the mojos don't disturb the benchmark output or timing.
+ */
+final class QuietLog implements Log {
+    @Override public boolean isDebugEnabled() { return false; }
+    @Override public void debug(CharSequence content) { }
+    @Override public void debug(CharSequence content, Throwable error) { }
+    @Override public void debug(Throwable error) { }
+    @Override public boolean isInfoEnabled() { return false; }
+    @Override public void info(CharSequence content) { }
+    @Override public void info(CharSequence content, Throwable error) { }
+    @Override public void info(Throwable error) { }
+    @Override public boolean isWarnEnabled() { return false; }
+    @Override public void warn(CharSequence content) { }
+    @Override public void warn(CharSequence content, Throwable error) { }
+    @Override public void warn(Throwable error) { }
+    @Override public boolean isErrorEnabled() { return false; }
+    @Override public void error(CharSequence content) { }
+    @Override public void error(CharSequence content, Throwable error) { }
+    @Override public void error(Throwable error) { }
+}
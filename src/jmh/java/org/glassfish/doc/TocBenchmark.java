@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for the stages of the toc goal.
+ *
+ * Each operation of walk, isHeader, and isChapter processes one page,
+ * one body line, or one section title, respectively, cycling through
+ * the corpus, so the results (and the gc.alloc.rate.norm reported by
+ * "-prof gc") are per page, per line, or per title.  An operation of
+ * toc is a complete run of the goal over the corpus, by a new mojo.
+ *
+ * Run with, e.g.,
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TocBenchmark -p pages=1000 -prof gc"
+ *
+ * Larger corpora, e.g., -p pages=100000, take a long time to run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TocBenchmark {
+    /**
+     * Number of pages in the corpus.
+     */
+    @Param({ "100", "1000", "10000" })
+    public int pages;
+
+    /**
+     * Number of sections per page.
+     */
+    @Param({ "2", "8" })
+    public int sections;
+
+    /**
+     * Number of tag lines before each section.
+     */
+    @Param({ "1", "4" })
+    public int tags;
+
+    /**
+     * Number of threads for the toc run.
+     */
+    @Param({ "1" })
+    public int threads;
+
+    private Corpus corpus;
+    private TocMojo mojo;
+    private FrontMatter[] headers;
+    private String[] lines;
+    private String[] titles;
+    private int page;
+    private int line;
+    private int title;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, MojoExecutionException {
+        corpus = new Corpus(pages, sections, tags, 0, 0);
+        mojo = mojo();
+        mojo.execute();         // initializes the patterns
+        headers = new FrontMatter[corpus.pages.size()];
+        for (int i = 0; i < headers.length; i++)
+            headers[i] = FrontMatter.read(
+                                new File(corpus.dir, corpus.pages.get(i)),
+                                mojo.charset);
+        lines = corpus.lines.toArray(new String[0]);
+        titles = corpus.titles.toArray(new String[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        corpus.delete();
+    }
+
+    /**
+     * Return a new mojo for the corpus.
+     */
+    private TocMojo mojo() {
+        TocMojo m = new TocMojo();
+        m.setLog(new QuietLog());
+        m.titlePage = "title.adoc";
+        m.toc = "toc.adoc";
+        m.chapterPatterns = "[0-9]+\\s.*";
+        m.ignoreTagPatterns = "sect-.*";
+        m.baseDirectory = corpus.dir;
+        m.sourceDirectory = corpus.dir;
+        m.threads = threads;
+        return m;
+    }
+
+    @Benchmark
+    public TocPage walk() throws IOException {
+        int i = page;
+        page = (i + 1) % headers.length;
+        return mojo.walk(corpus.pages.get(i), headers[i], null);
+    }
+
+    @Benchmark
+    public int isHeader() {
+        int i = line;
+        line = (i + 1) % lines.length;
+        String last = i > 0 ? lines[i - 1] : "";
+        return Underline.classify(lines[i], last.length());
+    }
+
+    @Benchmark
+    public boolean isChapter() {
+        int i = title;
+        title = (i + 1) % titles.length;
+        return mojo.isChapter(titles[i]);
+    }
+
+    @Benchmark
+    public void toc() throws MojoExecutionException {
+        mojo().execute();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * An index of all the [[tag]] anchors in the pages of a book,
+ * mapping each anchor to the page and section it's in.
+ * The toc goal writes the index; other tools can load it
+ * to look up anchors without reading the pages.
+ *
+ * The index is a text file with one line per anchor, sorted by anchor:
+ *
+ * anchor TAB file TAB line TAB section
+ *
+ * where file is the name of the page in the source directory,
+ * line is the line number of the anchor in the page, and section
+ * is the title of the section the anchor is in (or the title of
+ * the page if it's before the first section), possibly empty.
+ * If an anchor is defined more than once, the first definition
+ * in the book wins, and the others are reported.
+ */
+public final class AnchorIndex {
+    private static final String VERSION = "# anchor index 1";
+
+    /**
+     * An anchor in a page.
+     */
+    static final class Anchor {
+        final String name;
+        final String file;
+        final int line;
+        final String section;
+
+        Anchor(String name, String file, int line, String section) {
+            this.name = name;
+            this.file = file;
+            this.line = line;
+            this.section = section != null ? section : "";
+        }
+    }
+
+    private final Map<String, Anchor> anchors = new HashMap<>();
+
+    private AnchorIndex() { }
+
+    /**
+     * Build the index from the anchors of the pages, in order,
+     * warning about any anchor that's defined more than once.
+     */
+    static AnchorIndex of(List<TocPage> pages, Log log) {
+        AnchorIndex index = new AnchorIndex();
+        for (TocPage p : pages) {
+            for (Anchor a : p.anchors) {
+                Anchor first = index.anchors.putIfAbsent(a.name, a);
+                if (first != null)
+                    log.warn(String.format(
+                        "%s:%d: duplicate anchor %s, already defined at %s:%d",
+                        a.file, a.line, a.name, first.file, first.line));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Load the index written by the toc goal.
+     *
+     * @param	file	the index file
+     * @return		the index
+     * @exception	IOException	if the file can't be read or
+     *					isn't an anchor index
+     */
+    public static AnchorIndex load(File file) throws IOException {
+        AnchorIndex index = new AnchorIndex();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = r.readLine();
+            if (!VERSION.equals(line))
+                throw new IOException(file + ": not an anchor index");
+            while ((line = r.readLine()) != null) {
+                String[] f = line.split("\t", 4);
+                if (f.length != 4)
+                    throw new IOException(file + ": bad line: " + line);
+                try {
+                    index.anchors.put(f[0], new Anchor(f[0], f[1],
+                                        Integer.parseInt(f[2]), f[3]));
+                } catch (NumberFormatException ex) {
+                    throw new IOException(file + ": bad line: " + line);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Write the index to the file.
+     */
+    void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        try (PrintWriter w = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            w.print(VERSION + "\n");
+            for (String name : new TreeSet<>(anchors.keySet())) {
+                Anchor a = anchors.get(name);
+                // tabs and newlines can't appear in the other fields
+                w.print(name + "\t" + a.file + "\t" + a.line + "\t" +
+                        a.section.replace('\t', ' ') + "\n");
+            }
+        }
+    }
+
+    /**
+     * Is the anchor defined in any page?
+     */
+    public boolean contains(String anchor) {
+        return anchors.containsKey(anchor);
+    }
+
+    /**
+     * Return the name of the page that defines the anchor, or null.
+     */
+    public String file(String anchor) {
+        Anchor a = anchors.get(anchor);
+        return a != null ? a.file : null;
+    }
+
+    /**
+     * Return the line number of the anchor in its page, or 0.
+     */
+    public int line(String anchor) {
+        Anchor a = anchors.get(anchor);
+        return a != null ? a.line : 0;
+    }
+
+    /**
+     * Return the title of the section containing the anchor, or null.
+     */
+    public String section(String anchor) {
+        Anchor a = anchors.get(anchor);
+        return a != null ? a.section : null;
+    }
+
+    /**
+     * Return all the anchors.
+     */
+    public Set<String> anchors() {
+        return Collections.unmodifiableSet(anchors.keySet());
+    }
+
+    /**
+     * Return the anchor, or null.
+     */
+    Anchor get(String anchor) {
+        return anchors.get(anchor);
+    }
+}
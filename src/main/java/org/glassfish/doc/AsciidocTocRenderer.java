@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Write the TOC as a jbake asciidoc page, the toc.adoc file.
+ */
+final class AsciidocTocRenderer implements TocRenderer {
+    private final String titlePage;	// the "next" page
+    private final String includeLine;	// from the title page, or null
+
+    // TOC list item markers, indexed by section level
+    private static final String[] BULLETS = { "", "*", "**", "***" };
+
+    AsciidocTocRenderer(String titlePage, String includeLine) {
+        this.titlePage = titlePage;
+        this.includeLine = includeLine;
+    }
+
+    @Override
+    public void render(TocEntry book, PrintWriter out) {
+        out.println("type=page");
+        out.println("status=published");
+        out.println("title=" + book.title);
+        out.println("next=" + titlePage.replace(".adoc", ".html"));
+        out.println("~~~~~~");
+        if (includeLine != null)
+            out.println(includeLine);
+        out.println(book.title);
+        out.println(headerLine('=', book.title.length()));
+        out.println();
+        out.println("[[contents]]");
+        out.println("Contents");
+        out.println("--------");
+        out.println();
+        entries(book.children, out);
+    }
+
+    private static void entries(List<TocEntry> list, PrintWriter out) {
+        for (TocEntry e : list) {
+            String href = e.file.replace(".adoc", ".html");
+            if (e.level == TocEntry.CHAPTER) {
+                out.println();
+                if (e.tag != null)
+                    out.printf("[[%s]]%n", e.tag);
+                String linkline = String.format("link:%s#%s[%s]",
+                                                href, e.anchor, e.title);
+                out.println(linkline);
+                out.println(headerLine('~', linkline.length()));
+                out.println();
+            } else {
+                out.printf("%s link:%s#%s[%s]\n", BULLETS[e.level],
+                                                href, e.anchor, e.title);
+            }
+            entries(e.children, out);
+        }
+    }
+
+    /**
+     * Return a header line of length len using hchar.
+     */
+    private static String headerLine(char hchar, int len) {
+        char[] c = new char[len];
+        Arrays.fill(c, hchar);
+        return new String(c);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.File;
+
+/**
+ * One book to be built by the site goal in batch mode, e.g.,
+ *
+ * &lt;books&gt;
+ *   &lt;book&gt;
+ *     &lt;sourceDirectory&gt;admin/content&lt;/sourceDirectory&gt;
+ *     &lt;bookDirectory&gt;admin/target/book&lt;/bookDirectory&gt;
+ *   &lt;/book&gt;
+ *   ...
+ * &lt;/books&gt;
+ *
+ * Only the source and book directories are required.  Other settings
+ * default to the site goal's settings, or to files next to the book
+ * directory, e.g., target/book.manifest for target/book.
+ */
+public class Book {
+    /**
+     * Name of the book in the report.
+     * Defaults to the source directory.
+     */
+    private String name;
+
+    /**
+     * Jbake directory containing the asciidoc files.
+     */
+    private File sourceDirectory;
+
+    /**
+     * Output directory containing the processed asciidoc files for the book.
+     */
+    private File bookDirectory;
+
+    /**
+     * Name of the title page file.
+     */
+    private String titlePage;
+
+    /**
+     * The title to use in the TOC.
+     */
+    private String title;
+
+    /**
+     * The title to use in the book.
+     */
+    private String bookTitle;
+
+    /**
+     * Name of optional attributes configuration file for the book.
+     * Defaults to book-attributes.conf in the source directory.
+     */
+    private File attributesFile;
+
+    /**
+     * If set, also write the TOC to this file as JSON.
+     */
+    private File tocJson;
+
+    /**
+     * If set, also write the TOC to this file as an HTML nav element.
+     */
+    private File tocHtml;
+
+    /**
+     * File used to save the index of all the anchors in the pages.
+     */
+    private File anchorIndex;
+
+    /**
+     * File used to cache the information extracted from each page
+     * for the TOC.
+     */
+    private File cacheFile;
+
+    /**
+     * File recording the outputs produced in the book directory.
+     */
+    private File manifestFile;
+
+    /**
+     * Zip file to write the book to, instead of the book directory.
+     * If the site goal writes archives, defaults to a zip file next
+     * to the book directory, e.g., target/book.zip for target/book.
+     */
+    private File archive;
+
+    String getName() {
+        return name != null ? name : String.valueOf(sourceDirectory);
+    }
+
+    File getSourceDirectory() {
+        return sourceDirectory;
+    }
+
+    File getBookDirectory() {
+        return bookDirectory;
+    }
+
+    String getTitlePage() {
+        return titlePage;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    String getBookTitle() {
+        return bookTitle;
+    }
+
+    File getAttributesFile() {
+        return attributesFile != null ? attributesFile :
+                    new File(sourceDirectory, "book-attributes.conf");
+    }
+
+    File getTocJson() {
+        return tocJson;
+    }
+
+    File getTocHtml() {
+        return tocHtml;
+    }
+
+    File getAnchorIndex() {
+        return anchorIndex != null ? anchorIndex : sibling(".anchors.idx");
+    }
+
+    File getCacheFile() {
+        return cacheFile != null ? cacheFile : sibling(".toc.cache");
+    }
+
+    File getManifestFile() {
+        return manifestFile != null ? manifestFile : sibling(".manifest");
+    }
+
+    boolean hasArchive() {
+        return archive != null;
+    }
+
+    File getArchive() {
+        return archive != null ? archive : sibling(".zip");
+    }
+
+    File getTocReport() {
+        return sibling(".toc-report.json");
+    }
+
+    File getBookReport() {
+        return sibling(".book-report.json");
+    }
+
+    private File sibling(String suffix) {
+        return new File(bookDirectory.getPath() + suffix);
+    }
+}
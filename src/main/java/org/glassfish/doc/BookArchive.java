@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * A zip archive of the book, written as the pages and other files
+ * are produced, instead of writing them to the book directory.
+ * Pages are compressed; files that are already compressed, e.g.,
+ * images, are stored as they are.  The archive is written to a
+ * temporary file and renamed when it's finished, as OutputFile does,
+ * so a failed run leaves the previous archive in place.
+ *
+ * Entries must be added by one thread at a time.
+ */
+final class BookArchive implements Closeable {
+    // extensions of files that don't compress any further
+    private static final Set<String> COMPRESSED = new HashSet<>(
+        Arrays.asList("png", "jpg", "jpeg", "gif", "webp", "ico",
+            "zip", "jar", "gz", "tgz", "bz2", "xz", "7z",
+            "woff", "woff2", "mp3", "mp4"));
+
+    private final File file;
+    private final File tmp;
+    private final ZipOutputStream zout;
+    private final byte[] buf = new byte[64*1024];
+    private boolean finished;
+
+    BookArchive(File file) throws IOException {
+        this.file = file;
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory())
+            Files.createDirectories(dir.toPath());
+        tmp = OutputFile.temporary(file);
+        zout = new ZipOutputStream(new BufferedOutputStream(
+                                new FileOutputStream(tmp), 64*1024));
+    }
+
+    /**
+     * Add a page, or other text, to the archive, compressed.
+     * Return the compressed size.
+     */
+    long put(String name, ByteArrayOutputStream data, long mtime)
+                                throws IOException {
+        ZipEntry e = entry(name, mtime);
+        zout.putNextEntry(e);
+        data.writeTo(zout);
+        zout.closeEntry();
+        return e.getCompressedSize();
+    }
+
+    /**
+     * Add the contents of a file to the archive, stored if it's
+     * already compressed, with the given CRC, otherwise compressed.
+     * The file is copied through a buffer, not read into memory.
+     * Return the size of the entry in the archive.
+     */
+    long put(String name, File in, long mtime, long crc) throws IOException {
+        ZipEntry e = entry(name, mtime);
+        if (isCompressed(name)) {
+            long size = in.length();
+            e.setMethod(ZipEntry.STORED);
+            e.setSize(size);
+            e.setCompressedSize(size);
+            e.setCrc(crc);
+        }
+        zout.putNextEntry(e);
+        try (InputStream is = new FileInputStream(in)) {
+            int n;
+            while ((n = is.read(buf)) > 0)
+                zout.write(buf, 0, n);
+        }
+        // if the file changed since its CRC was computed, this fails
+        zout.closeEntry();
+        return e.getCompressedSize();
+    }
+
+    /**
+     * Return the CRC of the file contents, as needed to store it.
+     */
+    static long crc(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buf = new byte[16*1024];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                crc.update(buf, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Finish the archive and replace the archive file with it.
+     */
+    void finish() throws IOException {
+        zout.close();
+        OutputFile.replace(tmp, file);
+        finished = true;
+    }
+
+    /**
+     * If the archive wasn't finished, discard it.
+     */
+    @Override
+    public void close() {
+        if (finished)
+            return;
+        try {
+            zout.close();
+        } catch (IOException | RuntimeException ex) {
+            // discarding it anyway
+        }
+        tmp.delete();
+    }
+
+    private static ZipEntry entry(String name, long mtime) {
+        ZipEntry e = new ZipEntry(name);
+        if (mtime > 0)
+            e.setTime(mtime);
+        return e;
+    }
+
+    /**
+     * Is the named file of a type that's already compressed?
+     */
+    static boolean isCompressed(String name) {
+        int i = name.lastIndexOf('.');
+        return i >= 0 && name.indexOf('/', i) < 0 &&
+            COMPRESSED.contains(name.substring(i + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A log for one of several books being built at the same time.
+ * Each message is prefixed with the name of the book, and
+ * the warnings and errors are counted for the report.
+ */
+final class BookLog implements Log {
+    private final Log log;
+    private final String prefix;
+    final AtomicInteger warnings = new AtomicInteger();
+    final AtomicInteger errors = new AtomicInteger();
+
+    BookLog(Log log, String name) {
+        this.log = log;
+        this.prefix = "[" + name + "] ";
+    }
+
+    private CharSequence p(CharSequence content) {
+        return prefix + content;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        log.debug(p(content));
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        log.debug(p(content), error);
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        log.debug(p(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        log.info(p(content));
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        log.info(p(content), error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        log.info(p(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return log.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        warnings.incrementAndGet();
+        log.warn(p(content));
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        warnings.incrementAndGet();
+        log.warn(p(content), error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        warnings.incrementAndGet();
+        log.warn(p(String.valueOf(error)), error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return log.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        errors.incrementAndGet();
+        log.error(p(content));
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        errors.incrementAndGet();
+        log.error(p(content), error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        errors.incrementAndGet();
+        log.error(p(String.valueOf(error)), error);
+    }
+}
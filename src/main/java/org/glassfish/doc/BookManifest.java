@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The files produced in the book directory by the book goal,
+ * each with the fingerprint of the source file it was produced from.
+ *
+ * An output is current if its source hasn't changed and the output
+ * itself hasn't been changed or removed since it was produced.
+ * Outputs that were produced by the previous run but not by this run
+ * are stale, and can be removed.
+ *
+ * The manifest is a text file with one line per output:
+ *
+ * output TAB source TAB size TAB mtime TAB hash TAB out-size TAB out-mtime
+ *	TAB mode
+ *
+ * where the hash is "-" if it wasn't computed, and the mode is how a
+ * copied file was put in the book directory, e.g., "link", or "-" for
+ * a page.  An output made in another mode isn't current.
+ *
+ * The methods are synchronized so that outputs can be produced
+ * in parallel.
+ */
+final class BookManifest {
+    private static final String VERSION = "# book manifest 2";
+
+    private static final class Entry {
+        String source;
+        long size;
+        long mtime;
+        String hash;
+        long outSize;
+        long outMtime;
+        String mode;
+    }
+
+    private final File file;
+    private final Map<String, Entry> previous = new HashMap<>();
+    private final Map<String, Entry> current = new TreeMap<>();
+    private boolean dirty;
+
+    private BookManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the manifest from the file, if it exists.
+     * If file is null, nothing is ever current.
+     */
+    static BookManifest load(File file) {
+        BookManifest m = new BookManifest(file);
+        if (file == null || !file.isFile())
+            return m;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = r.readLine();
+            if (!VERSION.equals(line)) {
+                m.dirty = true;
+                return m;
+            }
+            while ((line = r.readLine()) != null) {
+                String[] f = line.split("\t");
+                if (f.length != 8)
+                    throw new IOException("bad manifest line");
+                Entry e = new Entry();
+                e.source = f[1];
+                e.size = Long.parseLong(f[2]);
+                e.mtime = Long.parseLong(f[3]);
+                e.hash = f[4].equals("-") ? null : f[4];
+                e.outSize = Long.parseLong(f[5]);
+                e.outMtime = Long.parseLong(f[6]);
+                e.mode = f[7].equals("-") ? null : f[7];
+                m.previous.put(f[0], e);
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // a damaged manifest is the same as no manifest
+            m.previous.clear();
+            m.dirty = true;
+        }
+        return m;
+    }
+
+    /**
+     * Return a manifest for another run, as this manifest would be
+     * if it were saved and loaded again.
+     */
+    synchronized BookManifest reuse() {
+        BookManifest m = new BookManifest(file);
+        m.previous.putAll(current);
+        m.dirty = dirty;
+        return m;
+    }
+
+    /**
+     * Was the manifest loaded from the file?
+     */
+    boolean isFor(File file) {
+        return Objects.equals(this.file, file);
+    }
+
+    /**
+     * Is the output in the book directory, produced from the source
+     * with the given fingerprint, up to date?  If so, it's kept.
+     */
+    synchronized boolean isCurrent(String output, String source,
+                                Fingerprint fp, File out) throws IOException {
+        return isCurrent(output, source, fp, out, null);
+    }
+
+    /**
+     * Is the output up to date, as above, and was it made in the
+     * given mode?
+     */
+    synchronized boolean isCurrent(String output, String source,
+                                Fingerprint fp, File out, String mode)
+                                throws IOException {
+        Entry e = previous.get(output);
+        if (e == null || !e.source.equals(source) ||
+                !Objects.equals(e.mode, mode))
+            return false;
+        Fingerprint ofp = Fingerprint.stat(out);
+        if (ofp == null || !ofp.sameStat(e.outSize, e.outMtime))
+            return false;
+        if (!fp.sameStat(e.size, e.mtime)) {
+            // touched, but maybe not changed
+            if (e.hash == null || !e.hash.equals(fp.hash()))
+                return false;
+            e.size = fp.size;
+            e.mtime = fp.mtime;
+            dirty = true;
+        }
+        current.put(output, e);
+        return true;
+    }
+
+    /**
+     * Record that the output was produced from the source with the
+     * given fingerprint.
+     */
+    synchronized void put(String output, String source, Fingerprint fp,
+                                File out) {
+        put(output, source, fp, out, null);
+    }
+
+    /**
+     * Record that the output was produced, as above, in the given mode.
+     */
+    synchronized void put(String output, String source, Fingerprint fp,
+                                File out, String mode) {
+        if (file == null)
+            return;
+        Entry e = new Entry();
+        e.source = source;
+        e.size = fp.size;
+        e.mtime = fp.mtime;
+        e.hash = fp.knownHash();
+        e.outSize = out.length();
+        e.outMtime = out.lastModified();
+        e.mode = mode;
+        current.put(output, e);
+        dirty = true;
+    }
+
+    /**
+     * Return the mode the previous run made the output in, or null
+     * if it was a page, or the previous run didn't make it.
+     */
+    synchronized String mode(String output) {
+        Entry e = previous.get(output);
+        return e != null ? e.mode : null;
+    }
+
+    /**
+     * Return the outputs produced by the previous run that
+     * were not produced or kept by this run.
+     */
+    synchronized List<String> stale() {
+        List<String> stale = new ArrayList<>();
+        for (String output : previous.keySet()) {
+            if (!current.containsKey(output))
+                stale.add(output);
+        }
+        Collections.sort(stale);
+        return stale;
+    }
+
+    /**
+     * Save the outputs of this run, if anything changed.
+     */
+    synchronized void save() throws IOException {
+        if (file == null ||
+                (!dirty && current.keySet().equals(previous.keySet())))
+            return;
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        try (PrintWriter w = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            w.print(VERSION + "\n");
+            for (Map.Entry<String, Entry> me : current.entrySet()) {
+                Entry e = me.getValue();
+                w.print(me.getKey() + "\t" + e.source + "\t" +
+                        e.size + "\t" + e.mtime + "\t" +
+                        (e.hash != null ? e.hash : "-") + "\t" +
+                        e.outSize + "\t" + e.outMtime + "\t" +
+                        (e.mode != null ? e.mode : "-") + "\n");
+            }
+        }
+        dirty = false;
+    }
+}
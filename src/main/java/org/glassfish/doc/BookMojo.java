@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 2011, 2019 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -17,7 +18,10 @@
 package org.glassfish.doc;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -61,6 +65,13 @@ public class BookMojo extends AbstractMojo {
     @Parameter
     protected List<String> exclude;
 
+    /**
+     * Encoding of the pages, the attributes file, and the book.
+     * Must be compatible with ASCII.
+     */
+    @Parameter(property = "book.encoding", defaultValue = "UTF-8")
+    protected String encoding;
+
     /**
      * Jbake directory containing the jekyll asciidoc source files.
      */
@@ -83,23 +94,123 @@ public class BookMojo extends AbstractMojo {
 		defaultValue = "${project.build.directory}/book")
     protected File bookDirectory;
 
+    /**
+     * File recording the outputs produced in the book directory,
+     * so that only outputs whose sources have changed are written
+     * again, and outputs whose sources are gone are removed.
+     */
+    @Parameter(property = "book.manifest",
+		defaultValue = "${project.build.directory}/book.manifest")
+    protected File manifestFile;
+
+    /**
+     * File used to save a report, in JSON, of the time taken
+     * to process each page, and other statistics.
+     */
+    @Parameter(property = "book.report",
+		defaultValue = "${project.build.directory}/book-report.json")
+    protected File report;
+
+    /**
+     * File recording the inputs and outputs of the last run.
+     * If none of them have changed, the goal does nothing.
+     */
+    @Parameter(property = "book.stamp",
+		defaultValue = "${project.build.directory}/book.stamp")
+    protected File stampFile;
+
+    /**
+     * Number of threads used to read pages ahead.
+     * Defaults to the number of processors.
+     */
+    @Parameter(property = "book.threads", defaultValue = "0")
+    protected int threads;
+
+    /**
+     * Number of threads used to scan the source directory and to
+     * copy files to the book directory.  These threads mostly wait
+     * for I/O, so more threads than processors can help, e.g., on a
+     * network file system.
+     * Defaults to sharing the threads used to read pages.
+     */
+    @Parameter(property = "book.copyThreads", defaultValue = "0")
+    protected int copyThreads;
+
+    /**
+     * How files other than pages are put in the book directory:
+     * "copy" copies them; "link" makes hard links to them, or
+     * symbolic links if the file system can't, or else copies them;
+     * "symlink" makes symbolic links to them, or else copies them.
+     * Pages are always written as files.  Files that an earlier run
+     * put in the book directory in another mode are put there again.
+     */
+    @Parameter(property = "book.assets", defaultValue = "copy")
+    protected String assets;
+
+    /**
+     * Write the bodies of the pages into the book file, instead of
+     * writing each page to its own file and including it.  Include
+     * lines in the pages are kept, and the files they include are
+     * still copied to the book directory.
+     */
+    @Parameter(property = "book.inline", defaultValue = "false")
+    protected boolean inline;
+
+    /**
+     * Zip file to write the book to, instead of the book directory.
+     * The pages, the book file, and the other files are written
+     * straight into the archive, which is written again in full
+     * on each run.
+     */
+    @Parameter(property = "book.archive")
+    protected File archive;
+
     /**
      * Log output, initialize this in the execute method.
      */
     protected Log log;
 
-    private String next;	// "next" link
-    private String prev;	// "prev" link
+    private SourcePage start;	// the start page, if already read
+    private OutputFile bookFile;	// the book file
+    private PrintWriter tout;	// writer for the book file
+    private BookArchive zip;	// the archive being written, or null
+    private BookManifest manifest;	// outputs of the previous run
+    Charset charset;		// charset for encoding
+    private RunReport stats;	// statistics for this run
+    ForkJoinPool sharedPool;	// pool to use instead of our own, or null
+    private ForkJoinPool pool;	// pool for this run, until end
+    private ForkJoinPool copyPool;	// pool to scan and copy, until end
+    private volatile int linkMode;	// how to copy, lowered if links fail
+
+    private static final int HARD = 0;		// hard link
+    private static final int SYMBOLIC = 1;	// symbolic link
+    private static final int COPY = 2;		// copy
+
+    FileIndex index;		// files in the source directory, or null
 
     private Set<String> seen = new HashSet<>();	// files we've seen
+    // headers read by chain, for pages that aren't read again
+    private Map<String, FrontMatter> headers = new HashMap<>();
 
     @Override
     public void execute() throws MojoExecutionException {
         log = getLog();
-
-        if (exclude == null) {
-            exclude = new ArrayList<String>();
-            exclude.add("toc.adoc");
+        RunStamp stamp = stamp();
+        if (stamp != null) {
+            RunStamp last = RunStamp.load(stampFile);
+            if (stamp.isCurrent(last)) {
+                last.replay(log);       // the problems haven't gone away
+                log.info("book: nothing changed, skipped");
+                shutdown();
+                return;
+            }
+            log = stamp.record(log);
+        }
+        try {
+            init();
+        } catch (MojoExecutionException ex) {
+            shutdown();         // the stamp may have scanned the files
+            throw ex;
         }
 
         if (log.isDebugEnabled()) {
@@ -108,97 +219,399 @@ public class BookMojo extends AbstractMojo {
             log.debug("title " + title);
             log.debug("book " + book);
             log.debug("exclude " + exclude);
+            log.debug("encoding " + charset);
+            log.debug("manifestFile " + manifestFile);
+            log.debug("report " + report);
+            log.debug("stampFile " + stampFile);
+            log.debug("threads " + threads);
+            log.debug("copyThreads " + copyThreads);
+            log.debug("assets " + assets);
+            log.debug("inline " + inline);
+            log.debug("archive " + archive);
         }
 
         try {
-            // create, open, and write book.adoc
-	    if (!bookDirectory.exists() && !bookDirectory.mkdirs()) {
-		log.error(String.format(
-		    "ERROR: can't create output directory %s", bookDirectory));
-		throw new MojoExecutionException("Can't create output directory");
-	    }
-	    if (!bookDirectory.isDirectory()) {
-		log.error(String.format(
-		    "ERROR: %s is not a directory", bookDirectory));
-		throw new MojoExecutionException(
-		    "Book directory is not a directory");
-	    }
-
-            // if title not set, get it from the start page
-            if (title == null) {
-                File in = new File(sourceDirectory, startPage);
-                try (BufferedReader r = new BufferedReader(new FileReader(in))) {
-                    String line;
-                    // read and extract information from the header
-                    while ((line = r.readLine()) != null) {
-                        if (line.startsWith("~"))
-                            break;
-                        if (line.startsWith("title=")) {
-                            title = line.substring(line.indexOf("=") + 1);
-                            break;
-                        }
+            begin(null);
+
+            /*
+             * Add the pages in the chain of "next" links, starting
+             * with the startPage file.  Pages whose outputs have to
+             * be written are read ahead while earlier pages are
+             * written; only the headers of the others are read.
+             */
+            List<String> chain = chain();
+            List<String> reads = new ArrayList<>();
+            for (String file : chain.subList(1, chain.size())) {
+                if (!isCurrent(file))
+                    reads.add(file);
+            }
+            Set<String> ahead = new HashSet<>(reads);
+            Prefetch<SourcePage> prefetch = new Prefetch<>(pool(), reads,
+                    name -> SourcePage.read(sourceDirectory, name, charset));
+            for (String file : chain) {
+                SourcePage sp = null;
+                if (ahead.contains(file)) {
+                    try {
+                        sp = prefetch.take(file);
+                    } catch (FileNotFoundException fex) {
+                        // add reports it
                     }
                 }
+                add(file, sp);
             }
 
-            PrintWriter tout = new PrintWriter(new File(bookDirectory, book));
-            tout.printf("= %s%n", title);
-
-            // if there's a book attribtues file, include its contents
-            if (attributesFile != null && attributesFile.exists()) {
-                try (BufferedReader r =
-                        new BufferedReader(new FileReader(attributesFile))) {
-                    String line;
-                    while ((line = r.readLine()) != null)
-                        tout.println(line);
+            end();
+            if (stamp != null) {
+                List<File> files = new ArrayList<>();
+                files.add(archive != null ? archive : bookDirectory);
+                for (String name : seen) {
+                    if (name.indexOf('/') >= 0)
+                        files.add(new File(sourceDirectory, name));
                 }
+                stamp.save(stampFile, files);
             }
+        } catch (IOException ex) {
+            log.error(ex);
+        } finally {
+            shutdown();
+            if (zip != null)
+                zip.close();    // failed, discard it
+        }
+    }
 
-            tout.println();
+    /**
+     * Return the stamp for this run, before anything is read
+     * or written, or null if there's no stamp file.
+     */
+    private RunStamp stamp() {
+        if (stampFile == null)
+            return null;
+        return new RunStamp()
+            .add("goal", "book")
+            .add("startPage", startPage)
+            .add("title", title)
+            .add("book", book)
+            .add("exclude", exclude)
+            .add("encoding", encoding)
+            .add("bookDirectory", bookDirectory)
+            .add("manifestFile", manifestFile)
+            .add("report", report)
+            .add("assets", assets)
+            .add("inline", inline)
+            .add("archive", archive)
+            .addFile(attributesFile)
+            .addDirectory(index(), Arrays.asList(
+                    new File(sourceDirectory, book), manifestFile, report,
+                    stampFile));
+    }
 
-            /*
-             * Follow the "next" links from file to file, starting
-             * with the startPage file.
-             */
-            next = startPage;
-            do {
-                String file = next;
-                if (!exclude.contains(file))
-                    tout.printf("include::%s[]%n%n", file);
-                String prevfile = null;
-                seen.add(next);
-                walk(next);
-                if (prev != null && prevfile != null &&
-                        !prev.equals(prevfile)) {
-                    log.error(String.format(
-                            "ERROR: prev wrong in %s - is %s, should be %s\n",
-                            file, prev, prevfile));
-                }
-                prevfile = file;
-            } while (next != null);
+    /**
+     * Set up for processing pages, using the configuration,
+     * and make sure the book directory exists.
+     * The log must already be set.  A bad encoding or assets mode
+     * is logged, and thrown as a MojoExecutionException.
+     */
+    void init() throws MojoExecutionException {
+        init(null);
+    }
 
-            /*
-             * Copy any files we haven't processed because they might
-             * be include files or attribute configuration files.
-             */
-            for (String name : sourceDirectory.list()) {
-                if (name.equals("toc.adoc") || name.equals(book))
-                    continue;
-                if (!seen.contains(name))
-                    copy(name);
+    /**
+     * Set up for processing pages, as above.  If previous is the
+     * manifest from an earlier run, it's used instead of loading
+     * the manifest file again.
+     */
+    void init(BookManifest previous) throws MojoExecutionException {
+        seen.clear();
+        headers.clear();
+        stats = new RunReport("book");
+        try {
+            charset = LineReader.charset(encoding);
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        if (assets == null)
+            assets = "copy";
+        if (assets.equals("copy"))
+            linkMode = COPY;
+        else if (assets.equals("link"))
+            linkMode = HARD;
+        else if (assets.equals("symlink"))
+            linkMode = SYMBOLIC;
+        else {
+            String msg = "Unknown assets mode, use copy, link, or symlink: " +
+                            assets;
+            log.error(msg);
+            throw new MojoExecutionException(msg);
+        }
+        if (exclude == null) {
+            exclude = new ArrayList<String>();
+            exclude.add("toc.adoc");
+        }
+
+        if (archive != null) {
+            // nothing to compare with, everything goes in the archive
+            manifest = BookManifest.load(null);
+            return;
+        }
+	if (!bookDirectory.exists() && !bookDirectory.mkdirs()) {
+	    log.error(String.format(
+		"ERROR: can't create output directory %s", bookDirectory));
+	    throw new MojoExecutionException("Can't create output directory");
+	}
+	if (!bookDirectory.isDirectory()) {
+	    log.error(String.format(
+		"ERROR: %s is not a directory", bookDirectory));
+	    throw new MojoExecutionException(
+		"Book directory is not a directory");
+	}
+        manifest = previous != null && previous.isFor(manifestFile) ?
+                        previous.reuse() : BookManifest.load(manifestFile);
+    }
+
+    /**
+     * Create the book file and write its header.  If the start page
+     * has already been read, sp is the start page, otherwise null.
+     */
+    void begin(SourcePage sp) throws IOException {
+        start = sp;
+        // if title not set, get it from the start page
+        if (title == null) {
+            if (start == null)
+                start = SourcePage.read(sourceDirectory, startPage, charset);
+            title = start.header.title();
+        }
+
+        // create, open, and write book.adoc
+        bookFile = new OutputFile(new File(bookDirectory, book));
+        tout = bookFile.writer(charset);
+        if (archive != null)
+            zip = new BookArchive(archive);
+        tout.printf("= %s%n", title);
+
+        // if there's a book attribtues file, include its contents
+        if (attributesFile != null && attributesFile.exists()) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(attributesFile), charset))) {
+                String line;
+                while ((line = r.readLine()) != null)
+                    tout.println(line);
             }
+        }
 
-            tout.close();
-        } catch (IOException ex) {
-            log.error(ex);
+        tout.println();
+    }
+
+    /**
+     * Add the named file, the next page in the chain, to the book.
+     * If the page has already been read, sp is the page, otherwise null.
+     */
+    void add(String file, SourcePage sp) throws IOException {
+        if (!exclude.contains(file) && !inline)
+            tout.printf("include::%s[]%n%n", file);
+        seen.add(file);
+        if (sp != null)
+            walk(sp);
+        else
+            walk(file);
+    }
+
+    /**
+     * Resolve the chain of pages starting with the start page,
+     * reading the headers of the pages in parallel, and report
+     * any problems with it.  Return the names of the pages in
+     * the chain, in order.
+     */
+    private List<String> chain() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String name : index().names()) {
+            if (name.endsWith(".adoc") && name.indexOf('/') < 0 &&
+                    !name.equals(book))
+                names.add(name);
+        }
+        ChainGraph<FrontMatter> g = ChainGraph.resolve(startPage, names,
+                pool(), name -> {
+                    try {
+                        return FrontMatter.read(
+                                new File(sourceDirectory, name), charset);
+                    } catch (FileNotFoundException fex) {
+                        return null;    // add reports it
+                    }
+                }, FrontMatter::next, FrontMatter::prev);
+        for (String e : g.errors())
+            log.error(e);
+        for (String name : g.chain()) {
+            if (g.get(name) != null)
+                headers.put(name, g.get(name));
+        }
+        return g.chain();
+    }
+
+    /**
+     * Return the index of the source directory, not including the
+     * book directory, scanning it the first time it's needed in
+     * this run.
+     */
+    FileIndex index() {
+        if (index == null)
+            index = FileIndex.scan(sourceDirectory,
+                            Collections.singleton(bookDirectory), copyPool());
+        return index;
+    }
+
+    /**
+     * Return the pool used to read pages, creating it if needed.
+     */
+    private ForkJoinPool pool() {
+        if (pool == null)
+            pool = sharedPool != null ? sharedPool : Parallel.pool(threads);
+        return pool;
+    }
+
+    /**
+     * Return the pool used to scan and copy files, creating it if
+     * needed.  Unless copyThreads is set, it's the pool used to read
+     * pages.
+     */
+    private ForkJoinPool copyPool() {
+        if (copyPool == null)
+            copyPool = copyThreads > 0 ? Parallel.pool(copyThreads) : pool();
+        return copyPool;
+    }
+
+    /**
+     * Shut down the pools we created for this run.
+     */
+    void shutdown() {
+        if (copyPool != null && copyPool != pool)
+            copyPool.shutdown();
+        if (pool != null && pool != sharedPool)
+            pool.shutdown();
+        copyPool = pool = null;
+    }
+
+    /**
+     * Is the output for the page already current, or is the page
+     * excluded, as far as the index and the manifest can tell?
+     * If so, the page needn't be read, except for its header.
+     */
+    boolean isCurrent(String file) throws IOException {
+        if (exclude.contains(file))
+            return true;
+        Fingerprint fp = index().get(file);
+        return !inline && fp != null && manifest.isCurrent(file, file, fp,
+                                            new File(bookDirectory, file));
+    }
+
+    /**
+     * The manifest used for this run.
+     */
+    BookManifest manifest() {
+        return manifest;
+    }
+
+    /**
+     * Add the named file to the book, as add does, when the caller
+     * is following the chain of pages.  Unless the page has already
+     * been read, it's only read if its output needs to be written.
+     */
+    void update(String file, SourcePage sp) throws IOException {
+        if (inline) {
+            add(file, sp);      // every page is written again
+            return;
+        }
+        if (!exclude.contains(file))
+            tout.printf("include::%s[]%n%n", file);
+        seen.add(file);
+        if (sp != null) {
+            walk(sp);
+            return;
+        }
+        File in = new File(sourceDirectory, file);
+        Fingerprint fp = index().get(file);
+        if (fp == null)
+            fp = Fingerprint.stat(in);  // e.g., outside the directory
+        if (exclude.contains(file) || (fp != null &&
+                manifest.isCurrent(file, file, fp,
+                                    new File(bookDirectory, file)))) {
+            stats.unchanged();
+            return;
+        }
+        try {
+            long t0 = System.nanoTime();
+            SourcePage page = SourcePage.read(sourceDirectory, file, charset);
+            walk(page, System.nanoTime() - t0);
+        } catch (FileNotFoundException fex) {
+            log.warn(in.toString() + ": can not open");
         }
     }
 
+    /**
+     * Copy the other files to the book directory, remove any stale
+     * outputs, and finish the book file.
+     */
+    void end() throws IOException {
+        stats.phase("chain");
+        /*
+         * Copy any files we haven't processed because they might
+         * be include files, attribute configuration files, or
+         * images, including those in subdirectories.
+         */
+        List<String> copies = new ArrayList<>();
+        for (String name : index().names()) {
+            if (name.equals("toc.adoc") || name.equals(book))
+                continue;
+            if (!seen.contains(name))
+                copies.add(name);
+        }
+        try {
+            if (zip != null)
+                archive(copies);
+            else
+                Parallel.map(copyPool(), copies, name -> copy(name));
+        } finally {
+            shutdown();
+        }
+        stats.phase("copy");
+
+        /*
+         * Remove anything we produced last time whose source is gone.
+         */
+        for (String name : manifest.stale()) {
+            File out = new File(bookDirectory, name);
+            // a symbolic link whose file is gone isn't a file
+            if ((out.isFile() || Files.isSymbolicLink(out.toPath())) &&
+                    !name.equals(book)) {
+                if (log.isDebugEnabled())
+                    log.debug("removing " + out);
+                if (!out.delete())
+                    log.warn("can't remove " + out);
+            }
+        }
+        manifest.save();
+
+        tout.close();
+        if (zip != null) {
+            try {
+                zip.put(book, bookFile, System.currentTimeMillis());
+                zip.finish();
+            } finally {
+                zip.close();
+                zip = null;
+            }
+        } else if (!bookFile.save() && log.isDebugEnabled())
+            log.debug(book + " unchanged");
+        stats.phase("save");
+        if (report != null)
+            stats.write(report);
+        log.info(stats.summary());
+    }
+
     /**
      * Process the named file in the source directory.
      *
      * If the file is in the exclude list, don't include
-     * it in the book, but do read it to find the "next" link.
+     * it in the book.
      *
      * Typically, each individual file contains a (redundant) top level
      * title/header line, e.g.,
@@ -214,81 +627,266 @@ public class BookMojo extends AbstractMojo {
      *
      * Remove the top level header from the book file.
      */
-    private void walk(String file) throws IOException {
-        title = next = prev = null;
+    void walk(String file) throws IOException {
+        if (start != null && file.equals(startPage)) {
+            walk(start);
+            return;
+        }
+        title = null;
         File in = new File(sourceDirectory, file);
-        try (BufferedReader r = new BufferedReader(new FileReader(in))) {
-            String line;
-            // read and extract information from the header
-            while ((line = r.readLine()) != null) {
-                if (line.startsWith("~"))
-                    break;
-                if (line.startsWith("title="))
-                    title = line.substring(line.indexOf("=") + 1);
-                if (line.startsWith("next="))
-                    next = line.substring(line.indexOf("=") + 1).
-                                replace(".html", ".adoc");
-                if (line.startsWith("prev="))
-                    prev = line.substring(line.indexOf("=") + 1).
-                                replace(".html", ".adoc");
+        File out = new File(bookDirectory, file);
+        Fingerprint fp = Fingerprint.of(in);
+        byte[] buf = null;
+        FrontMatter fm;
+        long t0 = System.nanoTime();
+        try {
+            if (exclude.contains(file) || (!inline &&
+                    manifest.isCurrent(file, file, fp, out))) {
+                fm = headers.remove(file);
+                if (fm == null)
+                    fm = FrontMatter.read(in, charset); // only the header
+                stats.unchanged();
+            } else {
+                fp.hash();      // before the file can change again
+                buf = FrontMatter.read(in, 0);
+                fm = FrontMatter.parse(buf, buf.length, charset);
             }
+        } catch (FileNotFoundException fex) {
+            log.warn(in.toString() + ": can not open");
+            return;
+        }
+        title = fm.title();
 
-            if (exclude.contains(file))
-                return;
+        if (buf != null) {
+            RunReport.Page ps = stats.page(file);
+            ps.readTime = System.nanoTime() - t0;
+            ps.bytesIn = buf.length;
+            strip(file, fm, buf, fp, ps);
+        }
+    }
 
-	    // the rest of the file, after the header is copied
-	    // to the book directory
-	    File out = new File(bookDirectory, file);
-	    try (PrintWriter w = new PrintWriter(out)) {
-                boolean first = true;
-		while ((line = r.readLine()) != null) {
-                    if (first) {
-                        // ignore empty lines
-                        if (line.length() == 0)
-                            continue;
-                        // copy over include lines
-                        if (line.startsWith("include::") &&
-                                line.endsWith("[]")) {
-                            w.println(line);
-                            continue;
-                        }
-                        first = false;
-                        // throw away the page title
-                        if (line.startsWith("= "))
-                            continue;
-                        else {
-                            String nline = r.readLine();
-                            if (nline != null && nline.startsWith("=") &&
-                                    nline.length() == line.length())
-                                continue;
-                            w.println(line);
-                            line = nline;
-                        }
-                    }
-		    w.println(line);
+    /**
+     * Process the page, which has already been read.
+     */
+    void walk(SourcePage sp) throws IOException {
+        walk(sp, 0);
+    }
+
+    /**
+     * Process the page, which took readTime nanoseconds to read.
+     */
+    private void walk(SourcePage sp, long readTime) throws IOException {
+        title = sp.header.title();
+        File out = new File(bookDirectory, sp.name);
+        if (exclude.contains(sp.name) || (!inline &&
+                manifest.isCurrent(sp.name, sp.name, sp.fingerprint, out))) {
+            stats.unchanged();
+            return;
+        }
+        RunReport.Page ps = stats.page(sp.name);
+        ps.readTime = readTime;
+        ps.bytesIn = sp.content.length;
+        strip(sp.name, sp.header, sp.content, sp.fingerprint, ps);
+    }
+
+    /**
+     * Write the body of the page, with the top level header removed,
+     * to the book directory, unless the output already has the
+     * same contents.  If inline is set, write it to the book file.
+     */
+    private void strip(String file, FrontMatter fm, byte[] buf,
+                        Fingerprint fp, RunReport.Page ps) throws IOException {
+        long t0 = System.nanoTime();
+        if (inline) {
+            tout.flush();
+            int size = bookFile.size();
+            try (LineReader r = FrontMatter.reader(buf, fm.bodyOffset(),
+                                                    charset)) {
+                ps.lines = strip(r, tout);
+            }
+            tout.println();
+            tout.flush();
+            ps.writeTime = System.nanoTime() - t0;
+            ps.bytesOut = bookFile.size() - size;
+            return;
+        }
+        File out = new File(bookDirectory, file);
+        OutputFile of = new OutputFile(out);
+        try (LineReader r = FrontMatter.reader(buf, fm.bodyOffset(),
+                                                charset);
+                PrintWriter w = of.writer(charset)) {
+            ps.lines = strip(r, w);
+        }
+        if (zip != null) {
+            ps.bytesOut = zip.put(file, of, fp != null ? fp.mtime : 0);
+            ps.writeTime = System.nanoTime() - t0;
+            return;
+        }
+        ps.kept = !of.save();
+        ps.writeTime = System.nanoTime() - t0;
+        ps.bytesOut = of.size();
+        manifest.put(file, file, fp, out);
+    }
+
+    /**
+     * Copy the rest of the page, after the header, to the writer,
+     * without the page title.  Return the number of lines read.
+     */
+    private static int strip(LineReader r, PrintWriter w)
+                                throws IOException {
+        int lines = 0;
+        String line;
+        boolean first = true;
+        while ((line = r.readLine()) != null) {
+            lines++;
+            if (first) {
+                // ignore empty lines
+                if (line.length() == 0)
+                    continue;
+                // copy over include lines
+                if (line.startsWith("include::") &&
+                        line.endsWith("[]")) {
+                    w.println(line);
+                    continue;
                 }
-	    }
-        } catch (FileNotFoundException fex) {
-            log.warn(in.toString() + ": can not open");
+                first = false;
+                // throw away the page title
+                if (line.startsWith("= "))
+                    continue;
+                else {
+                    String nline = r.readLine();
+                    lines++;
+                    if (nline != null && nline.startsWith("=") &&
+                            nline.length() == line.length())
+                        continue;
+                    w.println(line);
+                    line = nline;
+                }
+            }
+            w.println(line);
         }
+        return lines;
     }
 
     /**
-     * Copy the file from the source directory to the book directory.
+     * Copy the file from the source directory to the book directory,
+     * or link to it, unless the copy is already up to date.  The
+     * modification time of the file is preserved so that the copy
+     * can be checked even without a manifest.
+     * Return true if the file was copied.
      */
-    private void copy(String file) throws IOException {
+    boolean copy(String file) throws IOException {
         File in = new File(sourceDirectory, file);
         File out = new File(bookDirectory, file);
-        if (in.isDirectory())
-            return;     // skip directories
-        try (BufferedInputStream bin =
-                new BufferedInputStream(new FileInputStream(in));
-            BufferedOutputStream bout =
-                new BufferedOutputStream(new FileOutputStream(out))) {
-            byte[] buf = new byte[16*1024];
-            int n;
-            while ((n = bin.read(buf)) > 0)
-                bout.write(buf, 0, n);
+        Fingerprint fp = index().get(file);
+        if (fp == null)
+            return false;       // not a regular file
+        if (manifest.isCurrent(file, file, fp, out, assets))
+            return false;
+        boolean copied = false;
+        Fingerprint ofp = Fingerprint.stat(out);
+        // a link looks the same as its file, so check how it was made
+        String made = manifest.mode(file);
+        boolean remake = made != null ? !made.equals(assets) :
+                            assets.equals("copy") && isLink(out);
+        if (ofp == null || !ofp.sameStat(fp.size, fp.mtime) || remake) {
+            long t0 = System.nanoTime();
+            if (ofp == null && file.indexOf('/') >= 0)
+                Files.createDirectories(out.toPath().getParent());
+            if (remake)         // a hard link is the same file as its source
+                Files.deleteIfExists(out.toPath());
+            boolean linked = link(in, out);
+            RunReport.Page ps = stats.copy(file);
+            ps.writeTime = System.nanoTime() - t0;
+            if (linked)
+                ps.linked = true;
+            else
+                ps.bytesIn = ps.bytesOut = fp.size;
+            copied = true;
+        }
+        manifest.put(file, file, fp, out, assets);
+        return copied;
+    }
+
+    /**
+     * Is the file a symbolic link, or one of several hard links
+     * to the same file?
+     */
+    private static boolean isLink(File file) {
+        Path p = file.toPath();
+        if (Files.isSymbolicLink(p))
+            return true;
+        try {
+            Object n = Files.getAttribute(p, "unix:nlink",
+                                            LinkOption.NOFOLLOW_LINKS);
+            return n instanceof Integer && (Integer)n > 1;
+        } catch (IOException | UnsupportedOperationException |
+                    IllegalArgumentException ex) {
+            return false;       // can't tell, e.g., not a Unix file system
+        }
+    }
+
+    /**
+     * Add the files to the archive, in order, streaming each one
+     * into its entry.  A file that's stored needs its CRC before
+     * its entry is started, so those are computed ahead in parallel
+     * while earlier files are written.
+     */
+    private void archive(List<String> files) throws IOException {
+        List<String> stored = new ArrayList<>();
+        for (String name : files)
+            if (BookArchive.isCompressed(name))
+                stored.add(name);
+        Prefetch<Long> crcs = new Prefetch<>(copyPool(), stored,
+                name -> BookArchive.crc(new File(sourceDirectory, name)));
+        for (String name : files) {
+            long t0 = System.nanoTime();
+            long crc = BookArchive.isCompressed(name) ? crcs.take(name) : 0;
+            Fingerprint fp = index().get(name);
+            RunReport.Page ps = stats.copy(name);
+            ps.bytesIn = fp.size;
+            ps.bytesOut = zip.put(name, new File(sourceDirectory, name),
+                                    fp.mtime, crc);
+            ps.writeTime = System.nanoTime() - t0;
+        }
+    }
+
+    /**
+     * Put the file in the book directory as a link or a copy, as
+     * linkMode says.  If the link can't be made, e.g., because the
+     * book directory is on another file system, fall back to the
+     * next mode for this file and the rest.
+     * Return true if the file was linked.
+     */
+    private boolean link(File in, File out) throws IOException {
+        for (;;) {
+            int mode = linkMode;
+            if (mode == COPY) {
+                Files.copy(in.toPath(), out.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                return false;
+            }
+            // link to the file itself, not to a link to it
+            Path target = in.toPath().toRealPath();
+            try {
+                OutputFile.link(out, target, mode == HARD);
+                return true;
+            } catch (IOException | UnsupportedOperationException ex) {
+                lower(mode, ex);
+            }
         }
     }
+
+    /**
+     * Links of the given mode can't be made, use the next mode.
+     */
+    private synchronized void lower(int mode, Exception ex) {
+        if (linkMode != mode)
+            return;             // already lowered by another thread
+        linkMode = mode + 1;
+        log.info(String.format("book: can't make %s links in %s (%s), %s",
+                    mode == HARD ? "hard" : "symbolic", bookDirectory, ex,
+                    mode == HARD ? "using symbolic links" : "copying"));
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * The graph of pages formed by the "next" and "prev" links in their
+ * headers, resolved before any page is processed.
+ *
+ * The headers of all the candidate pages are read in parallel, then
+ * the chain is followed from the first page, stopping at a cycle or
+ * at a page that can't be read.  All the problems are found at once:
+ * cycles, pages that are the "next" page of more than one page (forks),
+ * "prev" links that don't match the chain, and candidate pages that
+ * aren't in the chain (orphans).
+ *
+ * T is whatever the caller reads for each page, e.g., its header;
+ * the reader returns null if the page can't be read.
+ */
+final class ChainGraph<T> {
+    private final Map<String, T> pages = new HashMap<>();
+    private final List<String> chain = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> orphans = new ArrayList<>();
+
+    private ChainGraph() { }
+
+    /**
+     * Resolve the chain starting with the named page.  The candidates
+     * are the other pages that might be in the chain; pages in the
+     * chain that aren't candidates are read when they're found.
+     */
+    static <T> ChainGraph<T> resolve(String start, Collection<String> names,
+                                ForkJoinPool pool,
+                                Parallel.Task<String, T> reader,
+                                Function<T, String> next,
+                                Function<T, String> prev)
+                                throws IOException {
+        ChainGraph<T> g = new ChainGraph<>();
+        Set<String> all = new LinkedHashSet<>();
+        all.add(start);
+        all.addAll(names);
+        List<String> list = new ArrayList<>(all);
+        List<T> read = Parallel.map(pool, list, reader);
+        for (int i = 0; i < list.size(); i++)
+            g.pages.put(list.get(i), read.get(i));
+
+        // follow the chain
+        Set<String> inChain = new HashSet<>();
+        String name = start;
+        while (name != null) {
+            if (!g.pages.containsKey(name))
+                g.pages.put(name, reader.apply(name));
+            g.chain.add(name);
+            inChain.add(name);
+            T page = g.pages.get(name);
+            String n = page != null ? next.apply(page) : null;
+            if (n != null && inChain.contains(n)) {
+                g.errors.add(String.format(
+                    "ERROR: cycle in chain - next in %s is %s, " +
+                    "which is already in the chain", name, n));
+                n = null;
+            }
+            name = n;
+        }
+
+        // check the prev links
+        for (int i = 1; i < g.chain.size(); i++) {
+            String file = g.chain.get(i);
+            T page = g.pages.get(file);
+            String p = page != null ? prev.apply(page) : null;
+            String should = g.chain.get(i - 1);
+            if (p != null && !p.equals(should))
+                g.errors.add(String.format(
+                    "ERROR: prev wrong in %s - is %s, should be %s",
+                    file, p, should));
+        }
+
+        // find the pages with more than one page before them
+        Map<String, List<String>> before = new TreeMap<>();
+        for (Map.Entry<String, T> e : g.pages.entrySet()) {
+            String n = e.getValue() != null ? next.apply(e.getValue()) : null;
+            if (n != null)
+                before.computeIfAbsent(n, k -> new ArrayList<>())
+                    .add(e.getKey());
+        }
+        for (Map.Entry<String, List<String>> e : before.entrySet()) {
+            if (e.getValue().size() > 1) {
+                List<String> from = e.getValue();
+                Collections.sort(from);
+                g.errors.add(String.format(
+                    "ERROR: fork in chain - %s is next in %s",
+                    e.getKey(), String.join(", ", from)));
+            }
+        }
+
+        for (String n : names) {
+            if (!inChain.contains(n))
+                g.orphans.add(n);
+        }
+        Collections.sort(g.orphans);
+        return g;
+    }
+
+    /**
+     * The pages in the chain, in order.  The last page may be one
+     * that can't be read.
+     */
+    List<String> chain() {
+        return chain;
+    }
+
+    /**
+     * What was read for the named page, or null.
+     */
+    T get(String name) {
+        return pages.get(name);
+    }
+
+    /**
+     * The problems found with the chain, as error messages.
+     */
+    List<String> errors() {
+        return errors;
+    }
+
+    /**
+     * The candidate pages that aren't in the chain, sorted by name.
+     */
+    List<String> orphans() {
+        return orphans;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The regular files in a directory tree, each with its size and
+ * modification time, found in one scan of the tree.  A goal scans
+ * the source directory once per run, and uses the index to find
+ * the pages that aren't in the chain, the files to copy, and the
+ * fingerprints of the files, without listing or checking any file
+ * again.
+ *
+ * Files are named by their path relative to the directory, with "/"
+ * separating the components.  Symbolic links are followed.  Hidden
+ * directories, e.g., ".git", and temporary files used to replace
+ * outputs are skipped, as are any directories the caller skips,
+ * e.g., a book directory inside the source directory.
+ */
+final class FileIndex {
+    private final File dir;
+    private final Map<String, Fingerprint> files = new TreeMap<>();
+    private boolean exists;
+
+    private FileIndex(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Scan the directory tree, skipping the given directories.
+     * Files that can't be read are left out.
+     */
+    static FileIndex scan(File dir, Collection<File> skip) {
+        return scan(dir, skip, null);
+    }
+
+    /**
+     * Scan the directory tree as above, using the pool to list the
+     * subdirectories in parallel.  Each directory is a task that forks
+     * a task for each of its subdirectories, so idle threads steal
+     * the subtrees of busy ones.  If pool is null, the tree is scanned
+     * in the calling thread.
+     */
+    static FileIndex scan(File dir, Collection<File> skip,
+                                ForkJoinPool pool) {
+        FileIndex index = new FileIndex(dir);
+        Set<Path> skipped = new HashSet<>();
+        for (File f : skip) {
+            if (f != null)
+                skipped.add(f.toPath().toAbsolutePath().normalize());
+        }
+        Path root = dir.toPath();
+        BasicFileAttributes attrs = attributes(root);
+        if (attrs == null || !attrs.isDirectory())
+            return index;
+        index.exists = true;
+        Walker w = new Walker(root, skipped, pool);
+        w.visited(attrs);
+        try {
+            w.directory(root);
+        } catch (IOException ex) {
+            // can't happen, directory doesn't throw
+        }
+        index.files.putAll(w.files);
+        return index;
+    }
+
+    /**
+     * The attributes of the file, following links,
+     * or null if it can't be read.
+     */
+    private static BasicFileAttributes attributes(Path p) {
+        try {
+            return Files.readAttributes(p, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The state of one scan, shared by the tasks for all the
+     * directories.
+     */
+    private static final class Walker {
+        final Path root;
+        final Set<Path> skipped;
+        final ForkJoinPool pool;
+        final Map<String, Fingerprint> files = new ConcurrentHashMap<>();
+        // directories already listed, to stop at loops of links
+        final Set<Object> visited = ConcurrentHashMap.newKeySet();
+
+        Walker(Path root, Set<Path> skipped, ForkJoinPool pool) {
+            this.root = root;
+            this.skipped = skipped;
+            this.pool = pool;
+        }
+
+        /**
+         * Record the directory as visited, and return false if it
+         * was already visited.
+         */
+        boolean visited(BasicFileAttributes attrs) {
+            Object key = attrs.fileKey();
+            return key == null || visited.add(key);
+        }
+
+        /**
+         * Add the files in the directory, then scan its
+         * subdirectories.  Entries that can't be read are left out.
+         */
+        Void directory(Path d) throws IOException {
+            List<Path> dirs = new ArrayList<>();
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(d)) {
+                for (Path f : ds) {
+                    BasicFileAttributes attrs = attributes(f);
+                    if (attrs == null)
+                        continue;       // leave it out
+                    String fn = f.getFileName().toString();
+                    if (attrs.isDirectory()) {
+                        if (!fn.startsWith(".") &&
+                                !skipped.contains(
+                                    f.toAbsolutePath().normalize()) &&
+                                visited(attrs))
+                            dirs.add(f);
+                    } else if (attrs.isRegularFile() &&
+                            !OutputFile.isTemporary(fn)) {
+                        String name = root.relativize(f).toString();
+                        if (File.separatorChar != '/')
+                            name = name.replace(File.separatorChar, '/');
+                        files.put(name, Fingerprint.of(f.toFile(),
+                                    attrs.size(),
+                                    attrs.lastModifiedTime().toMillis(),
+                                    null));
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException ex) {
+                // leave out what we couldn't list
+            }
+            Parallel.map(pool, dirs, this::directory);
+            return null;
+        }
+    }
+
+    /**
+     * The directory that was scanned.
+     */
+    File directory() {
+        return dir;
+    }
+
+    /**
+     * Did the directory exist?
+     */
+    boolean exists() {
+        return exists;
+    }
+
+    /**
+     * The names of all the files, in order.
+     */
+    Set<String> names() {
+        return files.keySet();
+    }
+
+    /**
+     * The fingerprint of the named file, as of the scan,
+     * or null if it isn't in the index.
+     */
+    Fingerprint get(String name) {
+        return files.get(name);
+    }
+
+    /**
+     * Return the name in the index of the file, if it's in the
+     * directory tree, otherwise null.  The file needn't exist.
+     */
+    String name(File file) {
+        if (file == null)
+            return null;
+        Path root = dir.toPath().toAbsolutePath().normalize();
+        Path p = file.toPath().toAbsolutePath().normalize();
+        if (!p.startsWith(root) || p.equals(root))
+            return null;
+        String name = root.relativize(p).toString();
+        return File.separatorChar != '/' ?
+                    name.replace(File.separatorChar, '/') : name;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The identity of a source file: its size, modification time,
+ * and (computed only when needed) a hash of its contents.
+ */
+final class Fingerprint {
+    final long size;
+    final long mtime;
+    private final File file;
+    private final byte[] content;	// contents, if already read
+    private String hash;
+
+    private Fingerprint(File file, long size, long mtime, byte[] content) {
+        this.file = file;
+        this.size = size;
+        this.mtime = mtime;
+        this.content = content;
+    }
+
+    /**
+     * Return the fingerprint of the file, without reading it.
+     */
+    static Fingerprint of(File file) {
+        return new Fingerprint(file, file.length(), file.lastModified(), null);
+    }
+
+    /**
+     * Return the fingerprint of the file, without reading it,
+     * or null if it isn't a regular file.  Unlike File.isFile,
+     * File.length, and File.lastModified, this needs only one
+     * system call.
+     */
+    static Fingerprint stat(File file) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file.toPath(),
+                                        BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return null;
+        }
+        if (!attrs.isRegularFile())
+            return null;
+        return new Fingerprint(file, attrs.size(),
+                            attrs.lastModifiedTime().toMillis(), null);
+    }
+
+    /**
+     * Return the fingerprint of a file whose contents have been read
+     * after its size and modification time were determined.
+     * The hash is computed from the contents, if needed.
+     */
+    static Fingerprint of(File file, long size, long mtime, byte[] content) {
+        return new Fingerprint(file, size, mtime, content);
+    }
+
+    /**
+     * Does the file still have the given size and modification time?
+     */
+    boolean sameStat(long size, long mtime) {
+        return this.size == size && this.mtime == mtime;
+    }
+
+    /**
+     * Return a hash of the file contents, reading the file the
+     * first time it's needed.
+     */
+    String hash() throws IOException {
+        if (hash == null)
+            hash = content != null ? hash(content) : hash(file);
+        return hash;
+    }
+
+    /**
+     * Return the hash of the file contents if it has already been
+     * computed, otherwise null.
+     */
+    String knownHash() {
+        return hash;
+    }
+
+    /**
+     * Return the SHA-256 hash of the file contents as a hex string.
+     */
+    static String hash(File file) throws IOException {
+        MessageDigest md = digest();
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buf = new byte[16*1024];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                md.update(buf, 0, n);
+        }
+        return hex(md.digest());
+    }
+
+    /**
+     * Return the SHA-256 hash of the data as a hex string.
+     */
+    static String hash(byte[] data) {
+        MessageDigest md = digest();
+        md.update(data);
+        return hex(md.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);  // can't happen
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * The jbake header of a page, e.g.,
+ *
+ * type=page
+ * title=Page Title
+ * next=next-page.html
+ * prev=previous-page.html
+ * ~~~~~~
+ *
+ * The header ends with the first line starting with "~",
+ * and the body of the page starts after that line.
+ * The header is parsed directly from the bytes of the file,
+ * and only the header lines that contain "=" are decoded
+ * to strings, using the charset of the page.
+ */
+final class FrontMatter {
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private int lines;          // number of lines, including the "~" line
+    private int bodyOffset;     // byte offset of the first line of the body
+
+    private FrontMatter() { }
+
+    /**
+     * Read the header of the file, reading no more of the file
+     * than necessary.
+     */
+    static FrontMatter read(File file, Charset cs) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buf = new byte[4096];
+            int len = 0;
+            for (;;) {
+                int n = in.read(buf, len, buf.length - len);
+                if (n > 0)
+                    len += n;
+                FrontMatter fm = parse(buf, len, n < 0, cs);
+                if (fm != null)
+                    return fm;
+                if (len == buf.length)
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+    }
+
+    /**
+     * Parse the header at the start of buf, which contains
+     * the entire file.
+     */
+    static FrontMatter parse(byte[] buf, int len, Charset cs) {
+        return parse(buf, len, true, cs);
+    }
+
+    /**
+     * Parse the header at the start of buf.  If eof is false and
+     * the end of the header isn't in buf, return null.
+     */
+    private static FrontMatter parse(byte[] buf, int len, boolean eof,
+                                Charset cs) {
+        FrontMatter fm = new FrontMatter();
+        int start = 0;
+        while (start < len) {
+            // find the end of the line, and the start of the next line
+            int end = start;
+            while (end < len && buf[end] != '\n' && buf[end] != '\r')
+                end++;
+            int nstart;
+            if (end == len) {
+                if (!eof)
+                    return null;
+                nstart = len;
+            } else if (buf[end] == '\r') {
+                if (end + 1 == len && !eof)
+                    return null;        // might be followed by '\n'
+                nstart = end + 1 < len && buf[end + 1] == '\n' ?
+                                end + 2 : end + 1;
+            } else {
+                nstart = end + 1;
+            }
+            fm.lines++;
+            if (end > start && buf[start] == '~') {
+                fm.bodyOffset = nstart;
+                return fm;
+            }
+            for (int i = start; i < end; i++) {
+                if (buf[i] == '=') {
+                    fm.values.put(new String(buf, start, i - start, cs),
+                                new String(buf, i + 1, end - i - 1, cs));
+                    break;
+                }
+            }
+            start = nstart;
+        }
+        // no end of header, the whole file is header
+        fm.bodyOffset = len;
+        return fm;
+    }
+
+    /**
+     * Return the value of the named header field, or null.
+     */
+    String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * All the header fields, in the order they appear.
+     */
+    Map<String, String> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    String title() {
+        return values.get("title");
+    }
+
+    /**
+     * The "next" link, converted to the name of the source file.
+     */
+    String next() {
+        return source(values.get("next"));
+    }
+
+    /**
+     * The "prev" link, converted to the name of the source file.
+     */
+    String prev() {
+        return source(values.get("prev"));
+    }
+
+    private static String source(String link) {
+        return link != null ? link.replace(".html", ".adoc") : null;
+    }
+
+    /**
+     * The number of lines in the header, including the final "~" line.
+     */
+    int lineCount() {
+        return lines;
+    }
+
+    /**
+     * The byte offset in the file of the start of the body.
+     */
+    int bodyOffset() {
+        return bodyOffset;
+    }
+
+    /**
+     * Read the body of the file, skipping over the header.
+     */
+    byte[] readBody(File file) throws IOException {
+        return read(file, bodyOffset);
+    }
+
+    /**
+     * Return a reader for the text in buf starting at offset,
+     * e.g., the body of a page, decoded using the charset.
+     */
+    static LineReader reader(byte[] buf, int offset, Charset cs) {
+        return new LineReader(buf, offset, cs);
+    }
+
+    /**
+     * Read the file, starting at the given offset.
+     */
+    static byte[] read(File file, long offset) throws IOException {
+        try (FileChannel ch = new FileInputStream(file).getChannel()) {
+            long size = ch.size() - offset;
+            if (size <= 0)
+                return new byte[0];
+            if (size > Integer.MAX_VALUE)
+                throw new IOException(file + ": file too large");
+            ByteBuffer bb = ByteBuffer.allocate((int)size);
+            long pos = offset;
+            int n;
+            while (bb.hasRemaining() && (n = ch.read(bb, pos)) > 0)
+                pos += n;
+            return bb.hasRemaining() ?
+                Arrays.copyOf(bb.array(), bb.position()) : bb.array();
+        }
+    }
+}
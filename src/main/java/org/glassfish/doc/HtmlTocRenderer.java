@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Write the TOC as an HTML nav element, to be included in the pages
+ * of the site, e.g.,
+ *
+ * <nav class="toc">
+ * <ul>
+ * <li class="chapter"><a href="chapter1.html#GSABC00001">1 First Chapter</a>
+ * <ul>
+ * <li class="section"><a href="chapter1.html#GSABC00002">Section</a></li>
+ * </ul>
+ * </li>
+ * </ul>
+ * </nav>
+ */
+final class HtmlTocRenderer implements TocRenderer {
+    private static final String[] LEVELS =
+        { "chapter", "section", "subsection", "subsubsection" };
+
+    @Override
+    public void render(TocEntry book, PrintWriter out) {
+        out.print("<nav class=\"toc\" aria-label=\"" + escape(book.title) +
+                    "\">\n");
+        entries(book.children, out);
+        out.print("</nav>\n");
+    }
+
+    private static void entries(List<TocEntry> list, PrintWriter out) {
+        if (list.isEmpty())
+            return;
+        out.print("<ul>\n");
+        for (TocEntry e : list) {
+            out.print("<li class=\"" + LEVELS[e.level] + "\"><a href=\"" +
+                        escape(e.href()) + "\">" + escape(e.title) + "</a>");
+            if (!e.children.isEmpty()) {
+                out.print("\n");
+                entries(e.children, out);
+            }
+            out.print("</li>\n");
+        }
+        out.print("</ul>\n");
+    }
+
+    /**
+     * Escape the HTML special characters in the string.
+     */
+    static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '&':
+                sb.append("&amp;");
+                break;
+            case '<':
+                sb.append("&lt;");
+                break;
+            case '>':
+                sb.append("&gt;");
+                break;
+            case '"':
+                sb.append("&quot;");
+                break;
+            default:
+                sb.append(c);
+                break;
+            }
+        }
+        return sb.toString();
+    }
+}
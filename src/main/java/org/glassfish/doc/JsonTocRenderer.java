@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Write the TOC as JSON, for use by page templates, e.g.,
+ *
+ * {
+ *   "title": "Book Title",
+ *   "entries": [
+ *     {
+ *       "level": "chapter",
+ *       "title": "1 First Chapter",
+ *       "file": "chapter1.adoc",
+ *       "href": "chapter1.html#GSABC00001",
+ *       "anchor": "GSABC00001",
+ *       "entries": [ ... ]
+ *     },
+ *     ...
+ *   ]
+ * }
+ *
+ * A chapter with an extra anchor before it also has a "tag".
+ */
+final class JsonTocRenderer implements TocRenderer {
+    private static final String[] LEVELS =
+        { "chapter", "section", "subsection", "subsubsection" };
+
+    @Override
+    public void render(TocEntry book, PrintWriter out) {
+        out.print("{\n");
+        out.print("  \"title\": " + quote(book.title) + ",\n");
+        entries(book.children, "  ", out);
+        out.print("\n}\n");
+    }
+
+    private static void entries(List<TocEntry> list, String indent,
+                                PrintWriter out) {
+        out.print(indent + "\"entries\": [");
+        String sep = "\n";
+        for (TocEntry e : list) {
+            String in = indent + "    ";
+            out.print(sep + indent + "  {\n");
+            out.print(in + "\"level\": \"" + LEVELS[e.level] + "\",\n");
+            out.print(in + "\"title\": " + quote(e.title) + ",\n");
+            out.print(in + "\"file\": " + quote(e.file) + ",\n");
+            out.print(in + "\"href\": " + quote(e.href()) + ",\n");
+            out.print(in + "\"anchor\": " + quote(e.anchor) + ",\n");
+            if (e.tag != null)
+                out.print(in + "\"tag\": " + quote(e.tag) + ",\n");
+            entries(e.children, in, out);
+            out.print("\n" + indent + "  }");
+            sep = ",\n";
+        }
+        out.print(list.isEmpty() ? "]" : "\n" + indent + "]");
+    }
+
+    /**
+     * Return the string as a JSON string literal.
+     */
+    static String quote(String s) {
+        if (s == null)
+            return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20)
+                    sb.append(String.format("\\u%04x", (int)c));
+                else
+                    sb.append(c);
+                break;
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read lines of text from a page already read into memory, as
+ * BufferedReader.readLine does, decoding them with an explicit charset.
+ *
+ * Lines are found in the bytes, so the charset must be compatible
+ * with ASCII, as UTF-8 and the ISO-8859 charsets are.  Lines that
+ * are entirely ASCII, which is almost all of them, are converted
+ * to strings without decoding.  Other lines are decoded using a
+ * decoder and buffer kept for each thread, so nothing is allocated
+ * per line but the string itself.
+ */
+final class LineReader implements Closeable {
+    private static final Map<Charset, Boolean> asciiCompatible =
+                                                new ConcurrentHashMap<>();
+    private static final ThreadLocal<Decoder> decoders = new ThreadLocal<>();
+
+    /**
+     * A decoder for one charset, and the buffer it decodes into.
+     */
+    private static final class Decoder {
+        final CharsetDecoder decoder;
+        CharBuffer chars = CharBuffer.allocate(256);
+
+        Decoder(Charset cs) {
+            decoder = cs.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+    }
+
+    private final Charset charset;
+    private byte[] buf;		// null when closed
+    private final int len;
+    private int pos;
+
+    /**
+     * Read the text in buf starting at offset, using the charset.
+     */
+    LineReader(byte[] buf, int offset, Charset charset) {
+        this.buf = buf;
+        this.pos = offset;
+        this.len = buf.length;
+        this.charset = charset;
+    }
+
+    /**
+     * Return the next line, without the line terminator,
+     * or null at the end of the text.
+     */
+    String readLine() throws IOException {
+        if (buf == null)
+            throw new IOException("reader closed");
+        if (pos >= len)
+            return null;
+        int start = pos;
+        int bits = 0;
+        int end = start;
+        for (; end < len; end++) {
+            byte b = buf[end];
+            if (b == '\n' || b == '\r')
+                break;
+            bits |= b;
+        }
+        pos = end;
+        if (pos < len && buf[pos++] == '\r' && pos < len && buf[pos] == '\n')
+            pos++;
+        if ((bits & 0x80) == 0)         // all ASCII, nothing to decode
+            return new String(buf, start, end - start,
+                                StandardCharsets.ISO_8859_1);
+        return decode(start, end - start);
+    }
+
+    private String decode(int off, int n) {
+        Decoder d = decoders.get();
+        if (d == null || !d.decoder.charset().equals(charset)) {
+            d = new Decoder(charset);
+            decoders.set(d);
+        }
+        int max = (int)Math.ceil(n * (double)d.decoder.maxCharsPerByte());
+        if (d.chars.capacity() < max)
+            d.chars = CharBuffer.allocate(
+                                Math.max(max, d.chars.capacity() * 2));
+        CharBuffer cb = d.chars;
+        cb.clear();
+        d.decoder.reset();
+        d.decoder.decode(ByteBuffer.wrap(buf, off, n), cb, true);
+        d.decoder.flush(cb);
+        cb.flip();
+        return cb.toString();
+    }
+
+    @Override
+    public void close() {
+        buf = null;
+    }
+
+    /**
+     * Return the named charset, or UTF-8 if encoding is null or empty.
+     * The charset must be supported, and compatible with ASCII.
+     */
+    static Charset charset(String encoding) {
+        if (encoding == null || encoding.isEmpty())
+            return StandardCharsets.UTF_8;
+        Charset cs;
+        try {
+            cs = Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                "unsupported encoding: " + encoding, ex);
+        }
+        if (!isAsciiCompatible(cs))
+            throw new IllegalArgumentException(
+                "encoding not compatible with ASCII: " + encoding);
+        return cs;
+    }
+
+    /**
+     * Does the charset encode all ASCII characters as single bytes
+     * with the same values?
+     */
+    static boolean isAsciiCompatible(Charset cs) {
+        return asciiCompatible.computeIfAbsent(cs, c -> {
+            if (!c.canEncode())
+                return false;
+            char[] ascii = new char[128];
+            byte[] expected = new byte[128];
+            for (int i = 0; i < 128; i++) {
+                ascii[i] = (char)i;
+                expected[i] = (byte)i;
+            }
+            return Arrays.equals(expected,
+                                new String(ascii).getBytes(c));
+        });
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+
+/**
+ * An output file whose contents are collected in memory and only
+ * written if they differ from the existing file, so that unchanged
+ * outputs keep their modification time and don't cause downstream
+ * tools to rebuild.  The file is replaced atomically by writing a
+ * temporary file in the same directory and renaming it.
+ */
+final class OutputFile extends ByteArrayOutputStream {
+    private static final String TEMP_PREFIX = ".";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File file;
+
+    OutputFile(File file) {
+        super(8*1024);
+        this.file = file;
+    }
+
+    /**
+     * Return a writer for the contents, using the charset.
+     */
+    PrintWriter writer(Charset cs) {
+        return new PrintWriter(new OutputStreamWriter(this, cs));
+    }
+
+    /**
+     * Write the contents to the file, if they differ from the file.
+     * Return true if the file was written.
+     */
+    boolean save() throws IOException {
+        return write(file, buf, count);
+    }
+
+    /**
+     * Write len bytes of data to the file, unless the file already
+     * contains exactly that data.  Return true if the file was written.
+     */
+    static boolean write(File file, byte[] data, int len) throws IOException {
+        if (same(file, data, len))
+            return false;
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory())
+            Files.createDirectories(dir.toPath());
+        File tmp = temporary(file);
+        try {
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                out.write(data, 0, len);
+            }
+            replace(tmp, file);
+        } finally {
+            tmp.delete();       // only if the move failed
+        }
+        return true;
+    }
+
+    /**
+     * Replace the file with a link to the target, a hard link if hard
+     * is true, otherwise a symbolic link, in the same way as write
+     * replaces it.  The file's directory must exist.
+     */
+    static void link(File file, Path target, boolean hard)
+                                throws IOException {
+        File tmp = temporary(file);
+        try {
+            Files.deleteIfExists(tmp.toPath());     // left by a crash
+            if (hard)
+                Files.createLink(tmp.toPath(), target);
+            else
+                Files.createSymbolicLink(tmp.toPath(), target);
+            replace(tmp, file);
+        } finally {
+            tmp.delete();       // only if the move failed
+        }
+    }
+
+    /**
+     * The temporary file used to replace the file.
+     */
+    static File temporary(File file) {
+        return new File(file.getParentFile(),
+                            TEMP_PREFIX + file.getName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Rename the temporary file to the file, atomically if possible.
+     */
+    static void replace(File tmp, File file) throws IOException {
+        try {
+            Files.move(tmp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Is the name that of a temporary file used to replace an output?
+     */
+    static boolean isTemporary(String name) {
+        return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX);
+    }
+
+    /**
+     * Does the file contain exactly len bytes of data?
+     */
+    private static boolean same(File file, byte[] data, int len)
+                                throws IOException {
+        Fingerprint fp = Fingerprint.stat(file);
+        if (fp == null || fp.size != len)
+            return false;
+        byte[] b = new byte[16*1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int off = 0, n;
+            while (off < len && (n = in.read(b, 0,
+                                    Math.min(b.length, len - off))) > 0) {
+                for (int i = 0; i < n; i++) {
+                    if (b[i] != data[off + i])
+                        return false;
+                }
+                off += n;
+            }
+            return off == len && in.read() < 0;
+        } catch (FileNotFoundException ex) {
+            return false;
+        }
+    }
+}
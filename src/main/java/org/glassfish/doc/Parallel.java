@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Run I/O bound tasks in parallel using a fork/join pool.
+ * Tasks run from within the pool join the same pool, so nested
+ * use shares the pool's threads rather than blocking them.
+ */
+final class Parallel {
+    /**
+     * A task that may fail with an IOException.
+     */
+    interface Task<T, R> {
+        R apply(T t) throws IOException;
+    }
+
+    private Parallel() { }
+
+    /**
+     * Create a pool with the given number of threads,
+     * or one thread per processor if threads is not positive.
+     */
+    static ForkJoinPool pool(int threads) {
+        if (threads <= 0)
+            threads = Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Apply the task to each of the items using the pool, and return
+     * the results in the same order as the items.  If pool is null,
+     * the items are processed sequentially in the calling thread.
+     * If any task fails, the first failure is thrown.
+     */
+    static <T, R> List<R> map(ForkJoinPool pool, List<T> items,
+                                final Task<? super T, R> task)
+                                throws IOException {
+        if (pool == null || items.size() < 2) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T t : items)
+                results.add(task.apply(t));
+            return results;
+        }
+        final List<ForkJoinTask<R>> tasks = new ArrayList<>(items.size());
+        for (final T t : items) {
+            Callable<R> c = () -> task.apply(t);
+            tasks.add(ForkJoinTask.adapt(c));
+        }
+        Runnable all = () -> ForkJoinTask.invokeAll(tasks);
+        try {
+            if (ForkJoinTask.getPool() == pool)
+                all.run();
+            else
+                pool.invoke(ForkJoinTask.adapt(all));
+        } catch (RuntimeException ex) {
+            throw unwrap(ex);
+        }
+        List<R> results = new ArrayList<>(items.size());
+        for (ForkJoinTask<R> t : tasks)
+            results.add(t.join());
+        return results;
+    }
+
+    /**
+     * Start the task in the pool, without waiting for it.
+     * Use join to get the result.
+     */
+    static <R> ForkJoinTask<R> fork(ForkJoinPool pool, Callable<R> c) {
+        ForkJoinTask<R> task = ForkJoinTask.adapt(c);
+        if (ForkJoinTask.getPool() == pool)
+            task.fork();
+        else
+            pool.execute(task);
+        return task;
+    }
+
+    /**
+     * Wait for the task started by fork, and return its result.
+     * If the task failed, its failure is thrown.
+     */
+    static <R> R join(ForkJoinTask<R> task) throws IOException {
+        try {
+            return task.join();
+        } catch (RuntimeException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    /**
+     * ForkJoinTask wraps checked exceptions thrown by a task in a
+     * RuntimeException; recover the original IOException.
+     */
+    private static IOException unwrap(RuntimeException ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof IOException)
+                return (IOException)t;
+        }
+        throw ex;
+    }
+}
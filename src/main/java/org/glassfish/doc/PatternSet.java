@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * A set of regular expressions, given as a comma separated list,
+ * compiled once and matched against entire strings.
+ *
+ * Expressions that are just literal strings are compared directly,
+ * as are expressions that are a literal string followed by ".*".
+ * The rest are combined into a single alternation, unless they use
+ * back references, which would be renumbered by the combination.
+ */
+final class PatternSet {
+    private static final String META = "\\.[]{}()*+?^$|";
+    private static final Pattern BACKREF = Pattern.compile("\\\\(\\d|k<)");
+
+    private final List<String> patterns;
+    private final Set<String> literals = new HashSet<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Pattern> regexes = new ArrayList<>();
+
+    private PatternSet(List<String> patterns) {
+        this.patterns = patterns;
+        StringBuilder combined = new StringBuilder();
+        for (String p : patterns) {
+            if (isLiteral(p, p.length())) {
+                literals.add(p);
+            } else if (p.endsWith(".*") && isLiteral(p, p.length() - 2)) {
+                prefixes.add(p.substring(0, p.length() - 2));
+            } else if (BACKREF.matcher(p).find()) {
+                regexes.add(Pattern.compile(p));
+            } else {
+                if (combined.length() > 0)
+                    combined.append('|');
+                combined.append("(?:").append(p).append(')');
+            }
+        }
+        if (combined.length() > 0)
+            regexes.add(Pattern.compile(combined.toString()));
+    }
+
+    /**
+     * Compile the comma separated list of expressions.
+     * A null list is an empty set, which matches nothing.
+     */
+    static PatternSet compile(String list) {
+        if (list == null)
+            return new PatternSet(Collections.<String>emptyList());
+        return new PatternSet(Arrays.asList(list.split(",")));
+    }
+
+    private static boolean isLiteral(String p, int len) {
+        for (int i = 0; i < len; i++) {
+            if (META.indexOf(p.charAt(i)) >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Does the entire string match any of the expressions?
+     */
+    boolean matches(String s) {
+        if (literals.contains(s))
+            return true;
+        for (String p : prefixes) {
+            if (s.startsWith(p))
+                return true;
+        }
+        for (Pattern p : regexes) {
+            if (p.matcher(s).matches())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The expressions, as given.
+     */
+    List<String> patterns() {
+        return patterns;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Read the pages of the chain ahead of the goal that processes them.
+ * The order of the pages is already known, from the chain graph,
+ * so up to DEPTH pages are read in parallel while the goal is still
+ * processing earlier pages.  This overlaps the latency of opening
+ * and reading each file, which can be high on network file systems,
+ * with the processing of the pages, without holding all the pages
+ * in memory.
+ */
+final class Prefetch<T> {
+    static final int DEPTH = 16;
+
+    private final ForkJoinPool pool;
+    private final List<String> names;
+    private final Parallel.Task<String, T> reader;
+    // pages being read, or read but not yet taken
+    private final Map<String, ForkJoinTask<T>> ahead = new HashMap<>();
+    private int started;	// index in names of the next page to start
+
+    /**
+     * Read the named pages, in order, in the pool using reader.
+     */
+    Prefetch(ForkJoinPool pool, List<String> names,
+                                Parallel.Task<String, T> reader) {
+        this.pool = pool;
+        this.names = names;
+        this.reader = reader;
+        fill();
+    }
+
+    /**
+     * Return the named page, waiting for it to be read if it was
+     * started, or reading it now if not, and start reading the
+     * next page.
+     */
+    T take(String name) throws IOException {
+        ForkJoinTask<T> task = ahead.remove(name);
+        fill();
+        return task != null ? Parallel.join(task) : reader.apply(name);
+    }
+
+    /**
+     * Start reading pages until DEPTH pages are ahead.
+     */
+    private void fill() {
+        while (ahead.size() < DEPTH && started < names.size()) {
+            String name = names.get(started++);
+            if (!ahead.containsKey(name))
+                ahead.put(name, Parallel.fork(pool, () -> reader.apply(name)));
+        }
+    }
+}
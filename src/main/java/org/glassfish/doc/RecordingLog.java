@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.util.*;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A log that passes everything on to another log, and also keeps
+ * the warnings and errors, so they can be saved with the run stamp
+ * and logged again when a later run is skipped.
+ */
+final class RecordingLog implements Log {
+    /**
+     * A warning or error.
+     */
+    static final class Message {
+        final boolean error;
+        final String text;
+
+        Message(boolean error, String text) {
+            this.error = error;
+            this.text = text;
+        }
+
+        /**
+         * Log the message again.
+         */
+        void replay(Log log) {
+            if (error)
+                log.error(text);
+            else
+                log.warn(text);
+        }
+    }
+
+    private final Log log;
+    private final List<Message> messages = new ArrayList<>();
+
+    RecordingLog(Log log) {
+        this.log = log;
+    }
+
+    /**
+     * The warnings and errors, in the order they were logged.
+     */
+    synchronized List<Message> messages() {
+        return new ArrayList<>(messages);
+    }
+
+    private synchronized void add(boolean error, Object content) {
+        messages.add(new Message(error, String.valueOf(content)));
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        log.debug(content);
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        log.debug(content, error);
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        log.debug(error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        log.info(content);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        log.info(content, error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        log.info(error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return log.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        add(false, content);
+        log.warn(content);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        add(false, content);
+        log.warn(content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        add(false, error);
+        log.warn(error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return log.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        add(true, content);
+        log.error(content);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        add(true, content);
+        log.error(content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        add(true, error);
+        log.error(error);
+    }
+}
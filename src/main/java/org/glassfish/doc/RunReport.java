@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Statistics about one run of a goal: the time taken by each phase
+ * of the run, and the time, bytes, lines, etc. for each page that
+ * was read or written.  Pages that were up to date, and so weren't
+ * read, are only counted.
+ *
+ * The report can be written as JSON, and summarized in one line
+ * for the log.  Pages may be added from several threads.
+ */
+final class RunReport {
+    private static final int SLOWEST = 5;	// pages in the summary
+
+    /**
+     * Statistics for one page, or other file.
+     * Times are in nanoseconds.
+     */
+    static final class Page {
+        final String file;
+        final boolean copy;	// a file copied, not a page
+        long readTime;
+        long parseTime;
+        long writeTime;
+        long bytesIn;
+        long bytesOut;
+        int lines;		// lines scanned
+        int regex;		// regular expression evaluations
+        int mismatches;	// header line length mismatches
+        boolean kept;	// output already had the same contents
+        boolean linked;	// a file linked to, rather than copied
+
+        Page(String file) {
+            this(file, false);
+        }
+
+        Page(String file, boolean copy) {
+            this.file = file;
+            this.copy = copy;
+        }
+
+        long time() {
+            return readTime + parseTime + writeTime;
+        }
+    }
+
+    private final String goal;
+    private final long start = System.nanoTime();
+    private final List<Page> pages = new ArrayList<>();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private int unchanged;	// pages that weren't read
+    private long phaseStart = start;
+
+    RunReport(String goal) {
+        this.goal = goal;
+    }
+
+    /**
+     * Start collecting statistics for the named page.
+     */
+    synchronized Page page(String file) {
+        Page p = new Page(file);
+        pages.add(p);
+        return p;
+    }
+
+    /**
+     * Add the statistics for a page, collected before it was
+     * known to be part of this run.
+     */
+    synchronized void add(Page p) {
+        pages.add(p);
+    }
+
+    /**
+     * Start collecting statistics for the named file,
+     * which is copied rather than processed as a page.
+     */
+    synchronized Page copy(String file) {
+        Page p = new Page(file, true);
+        pages.add(p);
+        return p;
+    }
+
+    /**
+     * Count a page that was up to date.
+     */
+    synchronized void unchanged() {
+        unchanged++;
+    }
+
+    /**
+     * End the current phase of the run, and start the next.
+     */
+    synchronized void phase(String name) {
+        long now = System.nanoTime();
+        phases.merge(name, now - phaseStart, Long::sum);
+        phaseStart = now;
+    }
+
+    /**
+     * One line summary, e.g.,
+     * "toc: 3001 pages (2990 unchanged), 0.5 MB in, 0.0 MB out, 120 ms,
+     * 25008 pages/s, slowest: a.adoc 3.1 ms, b.adoc 2.0 ms".
+     * Copied and linked files are counted separately.
+     */
+    synchronized String summary() {
+        long time = System.nanoTime() - start;
+        long in = 0, out = 0;
+        int copies = 0, links = 0, kept = 0;
+        for (Page p : pages) {
+            in += p.bytesIn;
+            out += p.bytesOut;
+            if (p.copy)
+                copies++;
+            if (p.linked)
+                links++;
+            if (p.kept)
+                kept++;
+        }
+        int n = pages.size() - copies + unchanged;
+        copies -= links;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT,
+                "%s: %d pages (%d unchanged), ", goal, n, unchanged));
+        if (copies > 0)
+            sb.append(copies).append(" files copied, ");
+        if (links > 0)
+            sb.append(links).append(" files linked, ");
+        if (kept > 0)
+            sb.append(kept).append(" outputs already current, ");
+        sb.append(String.format(Locale.ROOT,
+                "%.1f MB in, %.1f MB out, %d ms, %.0f pages/s",
+                in / 1e6, out / 1e6, time / 1000000,
+                time > 0 ? n * 1e9 / time : 0.0));
+        List<Page> slowest = slowest();
+        if (!slowest.isEmpty()) {
+            sb.append(", slowest:");
+            for (int i = 0; i < slowest.size(); i++) {
+                Page p = slowest.get(i);
+                sb.append(i == 0 ? " " : ", ");
+                sb.append(String.format(Locale.ROOT, "%s %.1f ms",
+                                            p.file, p.time() / 1e6));
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<Page> slowest() {
+        List<Page> sorted = new ArrayList<>();
+        for (Page p : pages) {
+            if (!p.copy)
+                sorted.add(p);
+        }
+        sorted.sort((a, b) -> Long.compare(b.time(), a.time()));
+        return sorted.subList(0, Math.min(SLOWEST, sorted.size()));
+    }
+
+    /**
+     * Write the report to the file as JSON.
+     * Times are in microseconds.
+     */
+    synchronized void write(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        try (PrintWriter w = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            w.print("{\n");
+            w.print("  \"goal\": " + JsonTocRenderer.quote(goal) + ",\n");
+            w.print("  \"time\": " + (System.nanoTime() - start) / 1000 +
+                    ",\n");
+            w.print("  \"unchanged\": " + unchanged + ",\n");
+            w.print("  \"phases\": {");
+            String sep = "\n";
+            for (Map.Entry<String, Long> e : phases.entrySet()) {
+                w.print(sep + "    " + JsonTocRenderer.quote(e.getKey()) +
+                        ": " + e.getValue() / 1000);
+                sep = ",\n";
+            }
+            w.print(phases.isEmpty() ? "},\n" : "\n  },\n");
+            w.print("  \"pages\": [");
+            sep = "\n";
+            for (Page p : pages) {
+                w.print(sep + "    {\"file\": " +
+                        JsonTocRenderer.quote(p.file) +
+                        (p.copy ? ", \"copy\": true" : "") +
+                        (p.kept ? ", \"kept\": true" : "") +
+                        (p.linked ? ", \"linked\": true" : "") +
+                        ", \"read\": " + p.readTime / 1000 +
+                        ", \"parse\": " + p.parseTime / 1000 +
+                        ", \"write\": " + p.writeTime / 1000 +
+                        ", \"bytesIn\": " + p.bytesIn +
+                        ", \"bytesOut\": " + p.bytesOut +
+                        ", \"lines\": " + p.lines +
+                        ", \"regex\": " + p.regex +
+                        ", \"mismatches\": " + p.mismatches + "}");
+                sep = ",\n";
+            }
+            w.print(pages.isEmpty() ? "]\n" : "\n  ]\n");
+            w.print("}\n");
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A summary of everything a run of a goal depends on and produces.
+ * If nothing has changed since the last run, the goal doesn't need
+ * to run again.
+ *
+ * The version of the plugin, the configuration, and the names, sizes,
+ * and times of the files in the source directory tree (other than the
+ * goal's own outputs) and of any other input files, are combined into
+ * one hash.  The stamp file has
+ * the hash, followed by the warnings and errors the run logged, and
+ * then the size and time of each of the files the goal wrote, and of
+ * any pages in subdirectories of the source directory, when the run
+ * finished:
+ *
+ * # run stamp 2
+ * hash
+ * count
+ * level TAB message
+ * path TAB size TAB mtime
+ *
+ * where count is the number of messages, level is "warn" or "error",
+ * newlines and backslashes in a message are escaped with backslashes,
+ * and the size is -1 if the file didn't exist.  A run that's skipped
+ * logs the messages again, so problems with the pages aren't lost
+ * just because nothing has changed.  Only the index of
+ * the source directory and the sizes and times of the outputs are
+ * needed to tell that nothing has changed; no file is read except
+ * the stamp file itself.
+ */
+final class RunStamp {
+    private static final String VERSION = "# run stamp 2";
+
+    private final StringBuilder inputs = new StringBuilder();
+    private final Map<String, long[]> files = new TreeMap<>();
+    private List<RecordingLog.Message> messages = new ArrayList<>();
+    private RecordingLog recorder;	// log of the run, if recorded
+    private String hash;
+
+    // a new version of the plugin may write different outputs
+    private static final String PLUGIN_VERSION = pluginVersion();
+
+    RunStamp() {
+        add("plugin", PLUGIN_VERSION);
+    }
+
+    /**
+     * Add a configuration setting.
+     */
+    RunStamp add(String name, Object value) {
+        inputs.append(name).append('=').append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Add the size and time of an input file.
+     */
+    RunStamp addFile(File file) {
+        inputs.append("file ").append(file);
+        Fingerprint fp = file != null ? Fingerprint.stat(file) : null;
+        if (fp != null)
+            inputs.append(' ').append(fp.size).append(' ').append(fp.mtime);
+        inputs.append('\n');
+        return this;
+    }
+
+    /**
+     * Add the names, sizes, and times of the files in the index of
+     * a directory, except for the excluded files.
+     */
+    RunStamp addDirectory(FileIndex index, Collection<File> exclude) {
+        if (!index.exists()) {
+            inputs.append("no directory ").append(index.directory())
+                .append('\n');
+            return this;
+        }
+        Set<String> skip = new HashSet<>();
+        for (File f : exclude)
+            skip.add(index.name(f));
+        for (String name : index.names()) {
+            if (skip.contains(name))
+                continue;
+            Fingerprint fp = index.get(name);
+            inputs.append("entry ").append(name).append(' ')
+                .append(fp.size).append(' ').append(fp.mtime).append('\n');
+        }
+        return this;
+    }
+
+    /**
+     * Return the version of the plugin, from the properties the
+     * build puts next to the classes, or null if they aren't there.
+     */
+    private static String pluginVersion() {
+        Properties p = new Properties();
+        try (InputStream in =
+                RunStamp.class.getResourceAsStream("plugin.properties")) {
+            if (in == null)
+                return null;
+            p.load(in);
+        } catch (IOException ex) {
+            return null;
+        }
+        return p.getProperty("version");
+    }
+
+    private String hash() {
+        if (hash == null)
+            hash = Fingerprint.hash(
+                        inputs.toString().getBytes(StandardCharsets.UTF_8));
+        return hash;
+    }
+
+    /**
+     * Load the stamp saved by the previous run, or return null.
+     */
+    static RunStamp load(File file) {
+        if (file == null || !file.isFile())
+            return null;
+        RunStamp stamp = new RunStamp();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            if (!VERSION.equals(r.readLine()))
+                return null;
+            stamp.hash = r.readLine();
+            String line = r.readLine();
+            if (line == null)
+                return null;
+            for (int n = Integer.parseInt(line); n > 0; n--) {
+                line = r.readLine();
+                String[] f = line != null ? line.split("\t", 2) : null;
+                if (f == null || f.length != 2)
+                    return null;
+                stamp.messages.add(new RecordingLog.Message(
+                            f[0].equals("error"), unescape(f[1])));
+            }
+            while ((line = r.readLine()) != null) {
+                String[] f = line.split("\t");
+                if (f.length != 3)
+                    return null;
+                stamp.files.put(f[0], new long[] {
+                            Long.parseLong(f[1]), Long.parseLong(f[2]) });
+            }
+        } catch (IOException | NumberFormatException ex) {
+            return null;
+        }
+        return stamp.hash != null ? stamp : null;
+    }
+
+    /**
+     * Is this stamp the same as the previous stamp, and are all
+     * the files recorded by the previous run unchanged?
+     */
+    boolean isCurrent(RunStamp previous) {
+        if (previous == null || !hash().equals(previous.hash))
+            return false;
+        for (Map.Entry<String, long[]> e : previous.files.entrySet()) {
+            if (!Arrays.equals(e.getValue(), stat(new File(e.getKey()))))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return a log for the run that passes messages on to the log,
+     * and keeps the warnings and errors to save with the stamp.
+     */
+    Log record(Log log) {
+        recorder = new RecordingLog(log);
+        return recorder;
+    }
+
+    /**
+     * Log the warnings and errors saved with the stamp again.
+     */
+    void replay(Log log) {
+        for (RecordingLog.Message m : messages)
+            m.replay(log);
+    }
+
+    /**
+     * Save the stamp, with the warnings and errors logged to the
+     * recorded log, and the size and time of each of the files.
+     * A directory stands for all the regular files in its tree.
+     */
+    void save(File file, Collection<File> outputs) throws IOException {
+        for (File f : outputs) {
+            if (f == null)
+                continue;
+            if (!f.isDirectory()) {
+                files.put(f.getPath(), stat(f));
+                continue;
+            }
+            FileIndex index = FileIndex.scan(f, Collections.emptySet());
+            for (String name : index.names()) {
+                Fingerprint fp = index.get(name);
+                files.put(new File(f, name).getPath(),
+                            new long[] { fp.size, fp.mtime });
+            }
+        }
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        try (PrintWriter w = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            w.print(VERSION + "\n");
+            w.print(hash() + "\n");
+            if (recorder != null)
+                messages = recorder.messages();
+            w.print(messages.size() + "\n");
+            for (RecordingLog.Message m : messages)
+                w.print((m.error ? "error" : "warn") + "\t" +
+                        escape(m.text) + "\n");
+            for (Map.Entry<String, long[]> e : files.entrySet())
+                w.print(e.getKey() + "\t" + e.getValue()[0] + "\t" +
+                        e.getValue()[1] + "\n");
+        }
+    }
+
+    private static String escape(String s) {
+        if (s.indexOf('\\') < 0 && s.indexOf('\n') < 0 &&
+                s.indexOf('\r') < 0)
+            return s;
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\')
+                sb.append("\\\\");
+            else if (c == '\n')
+                sb.append("\\n");
+            else if (c == '\r')
+                sb.append("\\r");
+            else
+                sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0)
+            return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                c = s.charAt(++i);
+                if (c == 'n')
+                    c = '\n';
+                else if (c == 'r')
+                    c = '\r';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static long[] stat(File f) {
+        Fingerprint fp = Fingerprint.stat(f);
+        return fp != null ? new long[] { fp.size, fp.mtime } :
+                            new long[] { -1, -1 };
+    }
+}
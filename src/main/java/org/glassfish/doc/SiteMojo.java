@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Generate both the Table of Contents (TOC) and the asciidoc book
+ * for asciidoc jbake projects, as the toc and book goals do,
+ * but follow the chain of pages only once, reading each page
+ * only once for both.
+ *
+ * If books are configured, build all of them at the same time,
+ * sharing one pool of threads, instead of the single book
+ * described by the other parameters, and report on all of them.
+ */
+@Mojo(name = "site", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+public class SiteMojo extends AbstractMojo {
+    /**
+     * Name of the title page file.
+     * Both the TOC and the book start with this file.
+     */
+    @Parameter(property = "site.titlepage", defaultValue = "title.adoc")
+    protected String titlePage;
+
+    /**
+     * The title to use in the TOC.
+     * Defaults to title set in title page.
+     */
+    @Parameter(property = "toc.title")
+    protected String title;
+
+    /**
+     * The title to use in the book.
+     * Defaults to title set in title page.
+     */
+    @Parameter(property = "book.title")
+    protected String bookTitle;
+
+    /**
+     * Name of the table of contents file.
+     */
+    @Parameter(property = "toc.toc", defaultValue = "toc.adoc")
+    protected String toc;
+
+    /**
+     * If set, also write the TOC to this file as JSON.
+     */
+    @Parameter(property = "toc.json")
+    protected File tocJson;
+
+    /**
+     * If set, also write the TOC to this file as an HTML nav element.
+     */
+    @Parameter(property = "toc.html")
+    protected File tocHtml;
+
+    /**
+     * Regular expressions that indicate a new chapter.
+     * Matched against top level section titles.
+     * Multiple expressions are separated by commas.
+     */
+    @Parameter(property = "toc.chapterpatterns", defaultValue = "[0-9]+\\s.*")
+    protected String chapterPatterns;
+
+    /**
+     * Regular expressions of tags that should be ignored.
+     * Multiple expressions are separated by commas.
+     */
+    @Parameter(property = "toc.tagpatterns", defaultValue = "")
+    protected String ignoreTagPatterns;
+
+    /**
+     * Name of the book file.
+     */
+    @Parameter(property = "book.book", defaultValue = "book.adoc")
+    protected String book;
+
+    /**
+     * Files to be excluded from the book.
+     * If not set, toc.adoc is excluded.
+     */
+    @Parameter
+    protected List<String> exclude;
+
+    /**
+     * Encoding of the pages, the TOC, and the book.
+     * Must be compatible with ASCII.
+     */
+    @Parameter(property = "site.encoding", defaultValue = "UTF-8")
+    protected String encoding;
+
+    /**
+     * Base directory for project.
+     * Should not need to be set.
+     */
+    @Parameter(defaultValue = "${project.basedir}")
+    protected File baseDirectory;
+
+    /**
+     * Jbake directory containing the asciidoc files.
+     */
+    @Parameter(property = "site.dir",
+		defaultValue = "${project.basedir}/src/main/jbake/content")
+    protected File sourceDirectory;
+
+    /**
+     * Name of optional attributes configuration file for the book.
+     * (Default is "book-attributes.conf".)
+     */
+    @Parameter(property = "book.attributes", defaultValue =
+            "${project.basedir}/src/main/jbake/content/book-attributes.conf")
+    protected File attributesFile;
+
+    /**
+     * Output directory containing the processed asciidoc files for the book.
+     */
+    @Parameter(property = "book.outputdir",
+		defaultValue = "${project.build.directory}/book")
+    protected File bookDirectory;
+
+    /**
+     * File used to save the index of all the anchors in the pages.
+     */
+    @Parameter(property = "toc.anchors",
+		defaultValue = "${project.build.directory}/anchors.idx")
+    protected File anchorIndex;
+
+    /**
+     * File used to cache the information extracted from each page
+     * for the TOC.
+     */
+    @Parameter(property = "toc.cache",
+		defaultValue = "${project.build.directory}/toc.cache")
+    protected File cacheFile;
+
+    /**
+     * File recording the outputs produced in the book directory.
+     */
+    @Parameter(property = "book.manifest",
+		defaultValue = "${project.build.directory}/book.manifest")
+    protected File manifestFile;
+
+    /**
+     * File used to save a report of the time taken
+     * to process each page for the TOC.
+     */
+    @Parameter(property = "toc.report",
+		defaultValue = "${project.build.directory}/toc-report.json")
+    protected File tocReport;
+
+    /**
+     * File used to save a report of the time taken
+     * to process each page for the book.
+     */
+    @Parameter(property = "book.report",
+		defaultValue = "${project.build.directory}/book-report.json")
+    protected File bookReport;
+
+    /**
+     * Number of threads used to parse pages and copy files.
+     * Defaults to the number of processors.
+     */
+    @Parameter(property = "site.threads", defaultValue = "0")
+    protected int threads;
+
+    /**
+     * Number of threads used by each book to scan its source directory
+     * and copy files, in addition to the shared threads.
+     * Defaults to using the shared threads.
+     */
+    @Parameter(property = "site.copyThreads", defaultValue = "0")
+    protected int copyThreads;
+
+    /**
+     * How files other than pages are put in the book directory,
+     * "copy", "link", or "symlink", as for the book goal.
+     */
+    @Parameter(property = "book.assets", defaultValue = "copy")
+    protected String assets;
+
+    /**
+     * Write the bodies of the pages into the book file,
+     * as for the book goal.
+     */
+    @Parameter(property = "book.inline", defaultValue = "false")
+    protected boolean inline;
+
+    /**
+     * Zip file to write the book to, instead of the book directory,
+     * as for the book goal.
+     */
+    @Parameter(property = "book.archive")
+    protected File archive;
+
+    /**
+     * Books to build, each with its own source and book directories.
+     * If set, the parameters for a single book are used only as the
+     * defaults for the titles and title page of each book.
+     */
+    @Parameter
+    protected List<Book> books;
+
+    /**
+     * Log output, initialize this in the execute method.
+     */
+    protected Log log;
+
+    /**
+     * The results for one book in batch mode.
+     */
+    private static final class Result {
+        final Book book;
+        final BookLog log;
+        int pages;
+        long time;	// nanoseconds
+
+        Result(Book book, BookLog log) {
+            this.book = book;
+            this.log = log;
+        }
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        log = getLog();
+        if (books != null && !books.isEmpty()) {
+            batch();
+            return;
+        }
+        TocMojo tocMojo = tocMojo();
+        BookMojo bookMojo = bookMojo();
+        tocMojo.init();
+        bookMojo.init();
+        build(tocMojo, bookMojo);
+    }
+
+    /**
+     * Build all the books at the same time, in one pool,
+     * and report on the results.
+     */
+    private void batch() {
+        long start = System.nanoTime();
+        List<Result> results = new ArrayList<>();
+        for (Book b : books)
+            results.add(new Result(b, new BookLog(log, b.getName())));
+        ForkJoinPool pool = Parallel.pool(threads);
+        try {
+            Parallel.map(pool, results, r -> {
+                long t0 = System.nanoTime();
+                TocMojo tocMojo = tocMojo(r.book, r.log);
+                BookMojo bookMojo = bookMojo(r.book, r.log);
+                tocMojo.sharedPool = pool;
+                bookMojo.sharedPool = pool;
+                try {
+                    tocMojo.init();
+                    bookMojo.init();
+                    build(tocMojo, bookMojo);
+                } catch (MojoExecutionException ex) {
+                    // already logged, skip this book
+                }
+                r.pages = tocMojo.pages().size();
+                r.time = System.nanoTime() - t0;
+                return r;
+            });
+        } catch (IOException ex) {
+            // build catches and logs IOExceptions itself
+            log.error(ex);
+        } finally {
+            pool.shutdown();
+        }
+
+        int pages = 0, warnings = 0, errors = 0;
+        log.info("Books:");
+        for (Result r : results) {
+            int w = r.log.warnings.get();
+            int e = r.log.errors.get();
+            log.info(String.format("  %s: %d pages, %d warnings, %d errors, " +
+                                "%d ms", r.book.getName(), r.pages, w, e,
+                                r.time / 1000000));
+            pages += r.pages;
+            warnings += w;
+            errors += e;
+        }
+        log.info(String.format("%d books: %d pages, %d warnings, %d errors, " +
+                                "%d ms", results.size(), pages, warnings,
+                                errors, (System.nanoTime() - start) / 1000000));
+    }
+
+    /**
+     * Build the TOC and the book using the goals,
+     * which have already been initialized.
+     */
+    private void build(TocMojo tocMojo, BookMojo bookMojo) {
+        Log log = tocMojo.log;
+        String titlePage = tocMojo.titlePage;
+        File sourceDirectory = tocMojo.sourceDirectory;
+        try {
+            SourcePage start = SourcePage.read(sourceDirectory, titlePage,
+                                                tocMojo.charset);
+            tocMojo.begin(start);
+            bookMojo.begin(start);
+            tocMojo.index = bookMojo.index();   // scan the files once
+
+            /*
+             * Give each page in the chain of "next" links, starting
+             * with the titlePage file, to both goals.  The TOC has
+             * already read the pages that aren't in its cache; the
+             * other pages that the book has to write are read ahead,
+             * using the TOC's pool, while the goals process earlier
+             * pages.  Pages whose book outputs are current aren't
+             * read at all.
+             */
+            List<String> chain = tocMojo.chain();
+            List<String> reads = new ArrayList<>();
+            for (String file : chain.subList(1, chain.size())) {
+                if (tocMojo.source(file) == null &&
+                        !bookMojo.isCurrent(file))
+                    reads.add(file);
+            }
+            Set<String> ahead = new HashSet<>(reads);
+            Prefetch<SourcePage> prefetch = new Prefetch<>(tocMojo.pool(),
+                    reads, name -> SourcePage.read(sourceDirectory, name,
+                                                    tocMojo.charset));
+            for (String file : chain) {
+                SourcePage sp = file.equals(titlePage) ? start :
+                                    tocMojo.source(file);
+                try {
+                    if (sp == null && ahead.contains(file))
+                        sp = prefetch.take(file);
+                } catch (FileNotFoundException fex) {
+                    // each goal reports the error
+                }
+                tocMojo.add(file, sp);
+                bookMojo.update(file, sp);
+            }
+
+            tocMojo.parse();
+            tocMojo.end();
+            bookMojo.end();
+        } catch (IOException ex) {
+            log.error(ex);
+        } finally {
+            tocMojo.shutdown();
+            bookMojo.shutdown();
+        }
+    }
+
+    /**
+     * Return a toc goal with the configuration for the book,
+     * using the log.
+     */
+    private TocMojo tocMojo(Book b, Log log) {
+        TocMojo m = tocMojo();
+        m.setLog(log);
+        m.log = log;
+        if (b.getTitlePage() != null)
+            m.titlePage = b.getTitlePage();
+        if (b.getTitle() != null)
+            m.title = b.getTitle();
+        m.tocJson = b.getTocJson();
+        m.tocHtml = b.getTocHtml();
+        m.sourceDirectory = b.getSourceDirectory();
+        m.anchorIndex = b.getAnchorIndex();
+        m.cacheFile = b.getCacheFile();
+        m.report = b.getTocReport();
+        return m;
+    }
+
+    /**
+     * Return a book goal with the configuration for the book,
+     * using the log.
+     */
+    private BookMojo bookMojo(Book b, Log log) {
+        BookMojo m = bookMojo();
+        m.setLog(log);
+        m.log = log;
+        if (b.getTitlePage() != null)
+            m.startPage = b.getTitlePage();
+        if (b.getBookTitle() != null)
+            m.title = b.getBookTitle();
+        if (exclude != null)
+            m.exclude = new ArrayList<>(exclude);
+        m.sourceDirectory = b.getSourceDirectory();
+        m.attributesFile = b.getAttributesFile();
+        m.bookDirectory = b.getBookDirectory();
+        m.manifestFile = b.getManifestFile();
+        m.report = b.getBookReport();
+        m.archive = archive != null || b.hasArchive() ? b.getArchive() : null;
+        return m;
+    }
+
+    /**
+     * Return a toc goal with our configuration.
+     */
+    TocMojo tocMojo() {
+        TocMojo m = new TocMojo();
+        m.setLog(log);
+        m.log = log;
+        m.titlePage = titlePage;
+        m.title = title;
+        m.toc = toc;
+        m.tocJson = tocJson;
+        m.tocHtml = tocHtml;
+        m.chapterPatterns = chapterPatterns;
+        m.ignoreTagPatterns = ignoreTagPatterns;
+        m.encoding = encoding;
+        m.baseDirectory = baseDirectory;
+        m.sourceDirectory = sourceDirectory;
+        m.anchorIndex = anchorIndex;
+        m.cacheFile = cacheFile;
+        m.report = tocReport;
+        m.threads = threads;
+        return m;
+    }
+
+    /**
+     * Return a book goal with our configuration.
+     */
+    BookMojo bookMojo() {
+        BookMojo m = new BookMojo();
+        m.setLog(log);
+        m.log = log;
+        m.startPage = titlePage;
+        m.title = bookTitle;
+        m.book = book;
+        m.exclude = exclude;
+        m.encoding = encoding;
+        m.sourceDirectory = sourceDirectory;
+        m.attributesFile = attributesFile;
+        m.bookDirectory = bookDirectory;
+        m.manifestFile = manifestFile;
+        m.report = bookReport;
+        m.threads = threads;
+        m.copyThreads = copyThreads;
+        m.assets = assets;
+        m.inline = inline;
+        m.archive = archive;
+        return m;
+    }
+}
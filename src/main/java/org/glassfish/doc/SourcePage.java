@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+/**
+ * A page from the source directory, read entirely into memory,
+ * so that it can be processed by more than one goal without
+ * reading it again.
+ */
+final class SourcePage {
+    final String name;		// name in the source directory
+    final Fingerprint fingerprint;
+    final byte[] content;	// the entire file
+    final FrontMatter header;
+
+    private SourcePage(String name, Fingerprint fingerprint, byte[] content,
+                                Charset cs) {
+        this.name = name;
+        this.fingerprint = fingerprint;
+        this.content = content;
+        this.header = FrontMatter.parse(content, content.length, cs);
+    }
+
+    /**
+     * Read the named page in the directory, whose text is
+     * encoded using the charset.
+     */
+    static SourcePage read(File dir, String name, Charset cs)
+                                throws IOException {
+        File file = new File(dir, name);
+        // size and time first, in case the file changes while we read it
+        long size = file.length();
+        long mtime = file.lastModified();
+        byte[] content = FrontMatter.read(file, 0);
+        return new SourcePage(name,
+                    Fingerprint.of(file, size, mtime, content), content, cs);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Persistent cache of the pages processed by the toc goal,
+ * keyed by file name and validated using the file's fingerprint.
+ *
+ * The cache is only valid for the configuration it was created with;
+ * a cache file with a different configuration key is ignored.
+ *
+ * The methods are synchronized so that pages can be looked up
+ * while the chain of pages is being prefetched.
+ */
+final class TocCache {
+    private static final int MAGIC = 0x544f4343;	// "TOCC"
+    private static final int VERSION = 3;
+
+    private static final class Entry {
+        long size;
+        long mtime;
+        String hash;
+        TocPage page;
+    }
+
+    private final File file;
+    private final String key;
+    private final Map<String, Entry> entries = new HashMap<>();
+    // entries used in this run; only these are saved
+    private final Map<String, Entry> used = new LinkedHashMap<>();
+    private boolean dirty;
+
+    private TocCache(File file, String key) {
+        this.file = file;
+        this.key = key;
+    }
+
+    /**
+     * Load the cache from the file, if it exists and was created
+     * with the same configuration key.  Otherwise, return an
+     * empty cache that will be saved to the file.
+     */
+    static TocCache load(File file, String key) {
+        TocCache cache = new TocCache(file, key);
+        if (file == null || !file.isFile())
+            return cache;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                    !key.equals(readString(in))) {
+                cache.dirty = true;
+                return cache;
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                String name = readString(in);
+                Entry e = new Entry();
+                e.size = in.readLong();
+                e.mtime = in.readLong();
+                e.hash = readString(in);
+                TocPage p = new TocPage();
+                p.file = name;
+                p.title = readString(in);
+                p.next = readString(in);
+                p.prev = readString(in);
+                int ne = in.readInt();
+                for (int j = 0; j < ne; j++) {
+                    int level = in.readInt();
+                    String anchor = readString(in);
+                    String title = readString(in);
+                    String tag = readString(in);
+                    p.entries.add(
+                        new TocEntry(level, name, anchor, title, tag));
+                }
+                int na = in.readInt();
+                for (int j = 0; j < na; j++) {
+                    String anchor = readString(in);
+                    int line = in.readInt();
+                    String section = readString(in);
+                    p.anchors.add(
+                        new AnchorIndex.Anchor(anchor, name, line, section));
+                }
+                int nw = in.readInt();
+                for (int j = 0; j < nw; j++)
+                    p.warnings.add(readString(in));
+                e.page = p;
+                cache.entries.put(name, e);
+            }
+        } catch (IOException ex) {
+            // a damaged cache is the same as no cache
+            cache.entries.clear();
+            cache.dirty = true;
+        }
+        return cache;
+    }
+
+    /**
+     * Return a cache for another run, holding the entries used
+     * in this run, as the cache would be if it were saved and
+     * loaded again.
+     */
+    synchronized TocCache reuse() {
+        TocCache cache = new TocCache(file, key);
+        cache.entries.putAll(used);
+        cache.dirty = dirty;
+        return cache;
+    }
+
+    /**
+     * Was the cache loaded from the file, with the configuration key?
+     */
+    boolean isFor(File file, String key) {
+        return Objects.equals(this.file, file) && this.key.equals(key);
+    }
+
+    /**
+     * Return the cached page for the named file, if the file
+     * hasn't changed since it was cached, otherwise null.
+     * A file whose size or time changed but whose contents
+     * are the same is still considered unchanged.
+     */
+    synchronized TocPage get(String name, Fingerprint fp) throws IOException {
+        Entry e = entries.get(name);
+        if (e == null)
+            return null;        // includes the case of no cache file
+        if (!fp.sameStat(e.size, e.mtime)) {
+            if (!fp.hash().equals(e.hash))
+                return null;
+            e.size = fp.size;
+            e.mtime = fp.mtime;
+            dirty = true;
+        }
+        used.put(name, e);
+        return e.page;
+    }
+
+    /**
+     * Does the cache have an entry for the named file with the same
+     * size and modification time, so that get finds it without
+     * hashing the file?
+     */
+    synchronized boolean isCurrent(String name, Fingerprint fp) {
+        Entry e = entries.get(name);
+        return e != null && fp.sameStat(e.size, e.mtime);
+    }
+
+    /**
+     * Remember the page for the named file with the given fingerprint.
+     */
+    synchronized void put(String name, Fingerprint fp, TocPage page)
+                                throws IOException {
+        if (file == null)
+            return;
+        Entry e = new Entry();
+        e.size = fp.size;
+        e.mtime = fp.mtime;
+        e.hash = fp.hash();
+        e.page = page;
+        entries.put(name, e);
+        used.put(name, e);
+        dirty = true;
+    }
+
+    /**
+     * Save the entries used in this run, if anything changed.
+     */
+    synchronized void save() throws IOException {
+        if (file == null || (!dirty && used.size() == entries.size()))
+            return;
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, key);
+            out.writeInt(used.size());
+            for (Map.Entry<String, Entry> me : used.entrySet()) {
+                Entry e = me.getValue();
+                TocPage p = e.page;
+                writeString(out, me.getKey());
+                out.writeLong(e.size);
+                out.writeLong(e.mtime);
+                writeString(out, e.hash);
+                writeString(out, p.title);
+                writeString(out, p.next);
+                writeString(out, p.prev);
+                out.writeInt(p.entries.size());
+                for (TocEntry te : p.entries) {
+                    out.writeInt(te.level);
+                    writeString(out, te.anchor);
+                    writeString(out, te.title);
+                    writeString(out, te.tag);
+                }
+                out.writeInt(p.anchors.size());
+                for (AnchorIndex.Anchor a : p.anchors) {
+                    writeString(out, a.name);
+                    out.writeInt(a.line);
+                    writeString(out, a.section);
+                }
+                out.writeInt(p.warnings.size());
+                for (String w : p.warnings)
+                    writeString(out, w);
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Strings may be null and may be longer than writeUTF allows.
+     */
+    private static void writeString(DataOutputStream out, String s)
+                                throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0)
+            return null;
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.util.*;
+
+/**
+ * An entry in the table of contents.
+ *
+ * The TOC is a tree; the root is the book itself, its children are
+ * the chapters, and sections, subsections, and subsubsections are
+ * children of the closest preceding entry at a higher level.
+ * Sections that come before the first chapter are children of the book.
+ */
+final class TocEntry {
+    static final int BOOK = -1;
+    static final int CHAPTER = 0;
+    static final int SECTION = 1;
+    static final int SUBSECTION = 2;
+    static final int SUBSUBSECTION = 3;
+
+    final int level;
+    final String file;		// name of the page in the source directory
+    final String anchor;	// anchor of the entry in the page, may be ""
+    final String title;
+    final String tag;		// extra anchor before a chapter, or null
+    final List<TocEntry> children = new ArrayList<>();
+
+    TocEntry(int level, String file, String anchor, String title, String tag) {
+        this.level = level;
+        this.file = file;
+        this.anchor = anchor;
+        this.title = title;
+        this.tag = tag;
+    }
+
+    /**
+     * The link to the entry in the generated site.
+     */
+    String href() {
+        return file.replace(".adoc", ".html") + "#" + anchor;
+    }
+
+    /**
+     * Build the tree for the book from the entries of the pages,
+     * in order.  The pages' entries are not copied, so a page's
+     * entries must not be in more than one tree.
+     */
+    static TocEntry tree(String title, String file, List<TocPage> pages) {
+        TocEntry book = new TocEntry(BOOK, file, "", title, null);
+        Deque<TocEntry> stack = new ArrayDeque<>();
+        stack.push(book);
+        for (TocPage p : pages) {
+            for (TocEntry e : p.entries) {
+                e.children.clear();
+                while (stack.peek().level >= e.level)
+                    stack.pop();
+                stack.peek().children.add(e);
+                stack.push(e);
+            }
+        }
+        return book;
+    }
+}
@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 2011, 2019 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -17,7 +18,12 @@
 package org.glassfish.doc;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.*;
 
 import org.apache.maven.plugin.AbstractMojo;
@@ -67,6 +73,13 @@ public class TocMojo extends AbstractMojo {
     @Parameter(property = "toc.tagpatterns", defaultValue = "")
     protected String ignoreTagPatterns;
 
+    /**
+     * Encoding of the pages, and of the TOC file.
+     * Must be compatible with ASCII.
+     */
+    @Parameter(property = "toc.encoding", defaultValue = "UTF-8")
+    protected String encoding;
+
     /**
      * Base directory for project.
      * Should not need to be set.
@@ -81,6 +94,59 @@ public class TocMojo extends AbstractMojo {
 		defaultValue = "${project.basedir}/src/main/jbake/content")
     protected File sourceDirectory;
 
+    /**
+     * If set, also write the TOC to this file as JSON,
+     * for use by page templates.
+     */
+    @Parameter(property = "toc.json")
+    protected File tocJson;
+
+    /**
+     * If set, also write the TOC to this file as an HTML nav element,
+     * for inclusion in pages.
+     */
+    @Parameter(property = "toc.html")
+    protected File tocHtml;
+
+    /**
+     * File used to save the index of all the anchors in the pages,
+     * for use by other tools.
+     */
+    @Parameter(property = "toc.anchors",
+		defaultValue = "${project.build.directory}/anchors.idx")
+    protected File anchorIndex;
+
+    /**
+     * File used to save a report, in JSON, of the time taken
+     * to process each page, and other statistics.
+     */
+    @Parameter(property = "toc.report",
+		defaultValue = "${project.build.directory}/toc-report.json")
+    protected File report;
+
+    /**
+     * File recording the inputs and outputs of the last run.
+     * If none of them have changed, the goal does nothing.
+     */
+    @Parameter(property = "toc.stamp",
+		defaultValue = "${project.build.directory}/toc.stamp")
+    protected File stampFile;
+
+    /**
+     * File used to cache the information extracted from each page,
+     * so that only pages that have changed need to be parsed again.
+     */
+    @Parameter(property = "toc.cache",
+		defaultValue = "${project.build.directory}/toc.cache")
+    protected File cacheFile;
+
+    /**
+     * Number of threads used to parse pages.
+     * Defaults to the number of processors.
+     */
+    @Parameter(property = "toc.threads", defaultValue = "0")
+    protected int threads;
+
     /**
      * Turn on debugging.
      */
@@ -92,31 +158,64 @@ public class TocMojo extends AbstractMojo {
      */
     protected Log log;
 
-    private String next;	// "next" link
-    private String prev;	// "prev" link
-    private PrintWriter tout;	// the TOC file
+    private String includeLine;	// include line from the title page
+    private TocCache cache;	// pages processed by previous runs
+    Charset charset;		// charset for encoding
+    private RunReport stats;	// statistics for this run
+    ForkJoinPool sharedPool;	// pool to use instead of our own, or null
+    private ForkJoinPool pool;	// pool for this run, until parse
+    private SourcePage titleSource;	// the title page
+    private List<TocPage> pages = new ArrayList<>();	// pages in order
+    private List<Pending> pending = new ArrayList<>();	// pages to parse
 
-    private Set<String> seen = new HashSet<>();	// files we've seen
-    private String[] chapterList;	// chapter title regular expressions
-    private String[] tagList;	        // ignored tag regular expressions
+    FileIndex index;		// files in the source directory, or null
+    // pages found while resolving the chain, not yet added
+    private Map<String, Pending> fetched = new HashMap<>();
+    private PatternSet chapterList;	// chapter title regular expressions
+    private PatternSet tagList;	        // ignored tag regular expressions
+    // tags already checked against tagList
+    private Map<String, Boolean> ignoredTags = new ConcurrentHashMap<>();
     private Pattern tagPattern;
-    // following for error messages
-    private String curfile;
-    private String lastline;
-    private int lineno;
 
-    // amount of slop to allow in "underlines" for section header lines
-    private static final int HEADER_SLOP = 5;
+    /**
+     * A page in the chain, as found by fetch.  Unless the page was
+     * found in the cache, it needs to be parsed.
+     */
+    private static final class Pending {
+        final TocPage page;		// complete, or only the header
+        final Fingerprint fingerprint;
+        final SourcePage source;	// null if it needn't be parsed
+        final RunReport.Page stats;
+        int index;			// index in pages
+        ForkJoinTask<TocPage> task;	// parsing the page
+
+        Pending(TocPage page, Fingerprint fingerprint) {
+            this(page, fingerprint, null, null);
+        }
+
+        Pending(TocPage page, Fingerprint fingerprint, SourcePage source,
+                                RunReport.Page stats) {
+            this.page = page;
+            this.fingerprint = fingerprint;
+            this.source = source;
+            this.stats = stats;
+        }
+    }
 
     @Override
     public void execute() throws MojoExecutionException {
         log = getLog();
-        chapterList = chapterPatterns.split(",");
-        tagPattern = Pattern.compile("\\[\\[([-a-zA-Z0-9]+)]]");
-	if (ignoreTagPatterns != null)	// XXX - default value "" becomes null?
-	    tagList = ignoreTagPatterns.split(",");
-	else
-	    tagList = new String[0];
+        RunStamp stamp = stamp();
+        if (stamp != null) {
+            RunStamp last = RunStamp.load(stampFile);
+            if (stamp.isCurrent(last)) {
+                last.replay(log);       // the problems haven't gone away
+                log.info("toc: nothing changed, skipped");
+                return;
+            }
+            log = stamp.record(log);
+        }
+        init();
 
         if (log.isDebugEnabled()) {
             log.debug("baseDirectory " + baseDirectory);
@@ -124,128 +223,463 @@ public class TocMojo extends AbstractMojo {
             log.debug("titlePage " + titlePage);
             log.debug("title " + title);
             log.debug("toc " + toc);
-            for (String p : chapterList)
+            log.debug("encoding " + charset);
+            log.debug("tocJson " + tocJson);
+            log.debug("tocHtml " + tocHtml);
+            log.debug("anchorIndex " + anchorIndex);
+            log.debug("report " + report);
+            log.debug("cacheFile " + cacheFile);
+            log.debug("stampFile " + stampFile);
+            log.debug("threads " + threads);
+            for (String p : chapterList.patterns())
                 log.debug("chapterPattern " + p);
-            for (String p : tagList)
+            for (String p : tagList.patterns())
                 log.debug("ignoreTagPattern " + p);
         }
 
         try {
-            String includeLine = null;
-            File in = new File(sourceDirectory, titlePage);
-            try (BufferedReader r = new BufferedReader(new FileReader(in))) {
-                String line;
-                // read and extract information from the header
-                while ((line = r.readLine()) != null) {
-                    if (line.startsWith("~"))
-                        break;
-                    // if title not set, get it from the title page
-                    if (title == null && line.startsWith("title="))
-                        title = line.substring(line.indexOf("=") + 1);
+            begin(SourcePage.read(sourceDirectory, titlePage, charset));
+
+            /*
+             * Add the pages in the chain of "next" links, starting
+             * with the titlePage file.  Pages that aren't in the
+             * cache are parsed as they're added.
+             */
+            for (String file : chain())
+                add(file, file.equals(titlePage) ? titleSource : null);
+            parse();
+            end();
+            if (stamp != null) {
+                List<File> files = new ArrayList<>(outputs());
+                for (TocPage p : pages) {
+                    if (p.file.indexOf('/') >= 0)
+                        files.add(new File(sourceDirectory, p.file));
                 }
+                stamp.save(stampFile, files);
+            }
+        } catch (IOException ex) {
+            log.error(ex);
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Return the stamp for this run, before anything is read
+     * or written, or null if there's no stamp file.
+     */
+    private RunStamp stamp() {
+        if (stampFile == null)
+            return null;
+        List<File> exclude = new ArrayList<>(outputs());
+        exclude.add(cacheFile);
+        exclude.add(report);
+        exclude.add(stampFile);
+        return new RunStamp()
+            .add("goal", "toc")
+            .add("titlePage", titlePage)
+            .add("title", title)
+            .add("toc", toc)
+            .add("chapterPatterns", chapterPatterns)
+            .add("ignoreTagPatterns", ignoreTagPatterns)
+            .add("encoding", encoding)
+            .add("tocJson", tocJson)
+            .add("tocHtml", tocHtml)
+            .add("anchorIndex", anchorIndex)
+            .add("report", report)
+            .addDirectory(index(), exclude);
+    }
+
+    /**
+     * The files written by this goal, other than the cache and report.
+     */
+    private List<File> outputs() {
+        return Arrays.asList(new File(sourceDirectory, toc),
+                            tocJson, tocHtml, anchorIndex);
+    }
+
+    /**
+     * Set up for processing pages, using the configuration.
+     * The log must already be set.  A bad encoding or pattern
+     * is logged, and thrown as a MojoExecutionException.
+     */
+    void init() throws MojoExecutionException {
+        init(null);
+    }
+
+    /**
+     * Set up for processing pages, as above.  If previous is the cache
+     * from an earlier run with the same configuration, its entries
+     * are used instead of loading the cache file again.
+     */
+    void init(TocCache previous) throws MojoExecutionException {
+        fetched.clear();
+        pages.clear();
+        pending.clear();
+        stats = new RunReport("toc");
+        try {
+            charset = LineReader.charset(encoding);
+            chapterList = PatternSet.compile(chapterPatterns);
+            // XXX - default value "" becomes null?
+            tagList = PatternSet.compile(ignoreTagPatterns);
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        tagPattern = Pattern.compile("\\[\\[([-a-zA-Z0-9]+)]]");
+        ignoredTags.clear();
+        String key = chapterPatterns + "\n" + ignoreTagPatterns + "\n" +
+                        charset.name();
+        cache = previous != null && previous.isFor(cacheFile, key) ?
+                    previous.reuse() : TocCache.load(cacheFile, key);
+    }
+
+    /**
+     * Get the information for the TOC header from the title page.
+     */
+    void begin(SourcePage tp) throws IOException {
+        titleSource = tp;
+        // if title not set, get it from the title page
+        if (title == null)
+            title = tp.header.title();
+
+        // if the first line after the header is an include, keep it
+        includeLine = null;
+        try (LineReader r = FrontMatter.reader(tp.content,
+                                    tp.header.bodyOffset(), charset)) {
+            String line;
+            if ((line = r.readLine()) != null &&
+                    line.startsWith("include::"))
+                includeLine = line;
+        }
+    }
+
+    /**
+     * Resolve the chain of pages starting with the title page,
+     * and report any problems with it, including the pages in the
+     * source directory that aren't in the chain.  The pages are read
+     * in parallel, except for pages that are in the cache, which
+     * aren't read at all.  Each page that isn't cached is read once,
+     * in full, and kept until it's parsed.  Return the names of the
+     * pages in the chain, in order, to be added.
+     */
+    List<String> chain() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String name : index().names()) {
+            if (!name.endsWith(".adoc") || name.indexOf('/') >= 0 ||
+                    name.equals("cpyr.adoc") || name.equals("toc.adoc") ||
+                    name.equals(toc))
+                continue;
+            names.add(name);
+        }
+        ChainGraph<Pending> g = ChainGraph.resolve(titlePage, names, pool(),
+                name -> fetch(name, name.equals(titlePage) ?
+                                    titleSource : null),
+                pp -> pp.page.next, pp -> pp.page.prev);
+        for (String e : g.errors())
+            log.error(e);
+        for (String name : g.orphans())
+            log.warn("MISSED: " + name);
+        fetched.clear();
+        for (String name : g.chain())
+            fetched.put(name, g.get(name));
+        return g.chain();
+    }
+
+    /**
+     * Return the named page, if chain read it because it wasn't
+     * in the cache, otherwise null.
+     */
+    SourcePage source(String file) {
+        Pending pp = fetched.get(file);
+        return pp != null ? pp.source : null;
+    }
+
+    /**
+     * Add the named file, the next page in the chain, to the TOC.
+     * If the page has already been read, sp is the page; otherwise,
+     * it's read now if it isn't in the cache, unless chain found it.
+     * The returned page has the header information; unless the
+     * page was found in the cache, its TOC entries are filled in
+     * by parse.
+     */
+    TocPage add(String file, SourcePage sp) throws IOException {
+        Pending pp = fetched.remove(file);
+        if (pp == null)
+            pp = fetch(file, sp);
+        return add(pp);
+    }
+
+    /**
+     * Add the page found by fetch to the TOC, as above.
+     * If the page needs to be parsed, start parsing it now.
+     */
+    private TocPage add(Pending pp) {
+        pp.index = pages.size();
+        pages.add(pp.page);
+        if (pp.source != null) {
+            stats.add(pp.stats);
+            pending.add(pp);
+            pp.task = Parallel.fork(pool(), () -> walk(pp.page.file,
+                        pp.source.header, pp.source.content, pp.stats));
+        } else if (pp.fingerprint != null) {
+            stats.unchanged();
+        }
+        return pp.page;
+    }
 
-                // if the first line after the header is an include, keep it
-                if ((line = r.readLine()) != null &&
-                        line.startsWith("include::"))
-                    includeLine = line;
+    /**
+     * Find the named page in the cache, or, if it isn't there,
+     * read it, using sp if the page has already been read.  A page
+     * is read only once, in full, and its hash for the cache comes
+     * from the contents that are parsed.
+     * May be called for several pages at once.
+     */
+    private Pending fetch(String file, SourcePage sp) throws IOException {
+        File f = new File(sourceDirectory, file);
+        Fingerprint fp = sp != null ? sp.fingerprint :
+                            index != null && index.get(file) != null ?
+                                index.get(file) : Fingerprint.stat(f);
+        if (fp == null)
+            return new Pending(missing(file), null);
+        RunReport.Page ps = new RunReport.Page(file);
+        if (sp == null && !cache.isCurrent(file, fp)) {
+            // not in the cache, or touched since
+            long t0 = System.nanoTime();
+            try {
+                sp = SourcePage.read(sourceDirectory, file, charset);
+            } catch (FileNotFoundException fex) {
+                return new Pending(missing(file), null);
             }
+            ps.readTime = System.nanoTime() - t0;
+            fp = sp.fingerprint;
+        }
+        TocPage p = cache.get(file, fp);
+        if (p != null)
+            return new Pending(p, fp);
+        return new Pending(header(file, sp.header), fp, sp, ps);
+    }
 
-            // create, open, and write toc.adoc
-            tout = new PrintWriter(new File(sourceDirectory, toc));
-            tout.println("type=page");
-            tout.println("status=published");
-            tout.println("title=" + title);
-            tout.println("next=" + titlePage.replace(".adoc", ".html"));
-            tout.println("~~~~~~");
-            if (includeLine != null)
-                tout.println(includeLine);
-            tout.println(title);
-            tout.println(headerLine('=', title.length()));
-            tout.println();
-            tout.println("[[contents]]");
-            tout.println("Contents");
-            tout.println("--------");
-            tout.println();
+    /**
+     * Return a page for a file that can't be read, reporting the
+     * error, that isn't cached.
+     */
+    private TocPage missing(String file) {
+        TocPage p = new TocPage();
+        p.file = file;
+        p.warnings.add(new File(sourceDirectory, file).toString() +
+                        ": can not open");
+        p.cacheable = false;
+        return p;
+    }
 
-            /*
-             * Follow the "next" links from file to file, starting
-             * with the titlePage file.
-             */
-            next = titlePage;
-            do {
-                String file = next;
-                String prevfile = null;
-                seen.add(next);
-                walk(next);
-                if (prev != null && prevfile != null &&
-                        !prev.equals(prevfile)) {
-                    log.error(String.format(
-                            "ERROR: prev wrong in %s - is %s, should be %s\n",
-                            file, prev, prevfile));
-                }
-                prevfile = file;
-            } while (next != null);
+    /**
+     * Return the index of the source directory, scanning it
+     * the first time it's needed in this run.
+     */
+    FileIndex index() {
+        if (index == null)
+            index = FileIndex.scan(sourceDirectory, Collections.emptySet());
+        return index;
+    }
 
-            /*
-             * Warn about files in the source directory that were not included
-             * in the "next" links.
-             */
-            for (String name : sourceDirectory.list()) {
-                if (!name.endsWith(".adoc") || name.equals("cpyr.adoc") ||
-                        name.equals("toc.adoc") || name.equals(toc))
-                    continue;
-                if (!seen.contains(name))
-                    log.warn("MISSED: " + name);
+    /**
+     * Return the pool used to parse pages, creating it if needed.
+     */
+    ForkJoinPool pool() {
+        if (pool == null)
+            pool = sharedPool != null ? sharedPool : Parallel.pool(threads);
+        return pool;
+    }
+
+    /**
+     * Wait for the pages that weren't in the cache to be parsed.
+     * They're parsed in parallel, as they're added.
+     */
+    void parse() throws IOException {
+        stats.phase("chain");
+        try {
+            for (Pending pp : pending) {
+                TocPage p = Parallel.join(pp.task);
+                pages.set(pp.index, p);
+                if (p.cacheable)
+                    cache.put(p.file, pp.fingerprint, p);
             }
+            pending.clear();
+        } finally {
+            shutdown();
+        }
+        stats.phase("parse");
+    }
 
-            tout.close();
-        } catch (IOException ex) {
-            log.error(ex);
+    /**
+     * Shut down the pool, if we created it for this run.
+     */
+    void shutdown() {
+        if (pool != null && pool != sharedPool)
+            pool.shutdown();
+        pool = null;
+    }
+
+    /**
+     * Write the TOC, built from the entries of all the pages,
+     * in each of the configured formats, and finish up.
+     */
+    void end() throws IOException {
+        for (TocPage p : pages) {
+            for (String w : p.warnings)
+                log.warn(w);
+        }
+        TocEntry book = TocEntry.tree(title, toc, pages);
+        render(new AsciidocTocRenderer(titlePage, includeLine), book,
+                new File(sourceDirectory, toc), charset);
+        if (tocJson != null)    // JSON is always UTF-8
+            render(new JsonTocRenderer(), book, tocJson,
+                    StandardCharsets.UTF_8);
+        if (tocHtml != null)
+            render(new HtmlTocRenderer(), book, tocHtml, charset);
+        if (anchorIndex != null)
+            AnchorIndex.of(pages, log).save(anchorIndex);
+        stats.phase("render");
+
+        cache.save();
+        stats.phase("save");
+        if (report != null)
+            stats.write(report);
+        log.info(stats.summary());
+    }
+
+    /**
+     * The pages added so far, in order.  Complete after parse.
+     */
+    List<TocPage> pages() {
+        return pages;
+    }
+
+    /**
+     * The cache used for this run.
+     */
+    TocCache cache() {
+        return cache;
+    }
+
+    /**
+     * Save the cache, if end isn't going to be called.
+     */
+    void saveCache() throws IOException {
+        cache.save();
+    }
+
+    /**
+     * Write the TOC to the file using the renderer and charset,
+     * unless the file already contains the same TOC.
+     */
+    private void render(TocRenderer r, TocEntry book, File file,
+                                Charset cs) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+        OutputFile of = new OutputFile(file);
+        try (PrintWriter out = of.writer(cs)) {
+            r.render(book, out);
         }
+        if (!of.save() && log.isDebugEnabled())
+            log.debug(file + " unchanged");
+    }
+
+    /**
+     * Return a page with the information from the header of the file.
+     * The TOC entries are filled in later by walk.
+     */
+    private static TocPage header(String file, FrontMatter fm) {
+        TocPage page = new TocPage();
+        page.file = file;
+        page.title = fm.title();
+        page.next = fm.next();
+        page.prev = fm.prev();
+        return page;
     }
 
     /**
-     * Process the named file in the source directory.
+     * Process the named file in the source directory, whose header
+     * has already been read.  If content is not null, it's the
+     * entire file; otherwise the body is read from the file.
+     * Called concurrently for different files, so all state
+     * is kept in local variables and the returned page.
      */
-    private void walk(String file) throws IOException {
-        title = next = prev = null;
-	curfile = file;
-	lineno = 0;
+    TocPage walk(String file, FrontMatter fm, byte[] content)
+                                throws IOException {
+        return walk(file, fm, content, new RunReport.Page(file));
+    }
+
+    /**
+     * Process the page as above, recording statistics in ps.
+     */
+    private TocPage walk(String file, FrontMatter fm, byte[] content,
+                                RunReport.Page ps) throws IOException {
+        TocPage page = header(file, fm);
         File in = new File(sourceDirectory, file);
-        try (BufferedReader r = new BufferedReader(new FileReader(in))) {
-            String line;
-            // read and extract information from the header
-            while ((line = r.readLine()) != null) {
-		lineno++;
-                if (line.startsWith("~"))
-                    break;
-                if (line.startsWith("title="))
-                    title = line.substring(line.indexOf("=") + 1);
-                if (line.startsWith("next="))
-                    next = line.substring(line.indexOf("=") + 1).
-                                replace(".html", ".adoc");
-                if (line.startsWith("prev="))
-                    prev = line.substring(line.indexOf("=") + 1).
-                                replace(".html", ".adoc");
+        byte[] buf = content;
+        int offset = fm.bodyOffset();
+        long t0 = System.nanoTime();
+        if (buf == null) {
+            try {
+                buf = fm.readBody(in);
+                offset = 0;
+            } catch (FileNotFoundException fex) {
+                page.warnings.add(in.toString() + ": can not open");
+                page.cacheable = false;
+                return page;
             }
+            ps.bytesIn = fm.bodyOffset() + buf.length;
+        } else {
+            ps.bytesIn = buf.length;
+        }
+        long t1 = System.nanoTime();
+        ps.readTime += t1 - t0;
+        try (LineReader r = FrontMatter.reader(buf, offset, charset)) {
+            String line;
+            int lineno = fm.lineCount();
 
-            lastline = "";
+            String lastline = "";
             String biglink = "";
             String smalllink = "";
             String link = "";
             boolean seenNonEmpty = false;
+            int h;
+            /*
+             * Anchors are in the section whose title follows them,
+             * or, if there's other text before the next title, in
+             * the current section.  unplaced are the anchors not yet
+             * known to be in either, and text is the number of
+             * non-empty lines after them.
+             */
+            String section = fm.title();
+            List<String> unplaced = new ArrayList<>();
+            List<Integer> unplacedLines = new ArrayList<>();
+            int text = 0;
             while ((line = r.readLine()) != null) {
 		lineno++;
+                boolean tagLine = false;
+                boolean header = false;
                 if (line.startsWith("[[") && line.endsWith("]]")) {
+                    tagLine = true;
+                    if (text > 0) {
+                        place(page, unplaced, unplacedLines, section);
+                        text = 0;
+                    }
                     Matcher m = tagPattern.matcher(line);
+                    ps.regex++;
                     while (m.find()) {
                         String tag = m.group(1);
-                        if (ignoreTag(tag))
+                        unplaced.add(tag);
+                        unplacedLines.add(lineno);
+                        if (ignoreTag(tag, ps))
                             continue;
-                        if (tag.matches("[A-Z0-9]+")) {
+                        if (isAlnum(tag, false)) {
                             biglink = tag;
                             seenNonEmpty = false;       // start looking
-                        } else if (tag.matches("[a-zA-Z0-9]+")) {
+                        } else if (isAlnum(tag, true)) {
                             smalllink = tag;
                             if (seenNonEmpty)
                                 biglink = "";
@@ -257,115 +691,103 @@ public class TocMojo extends AbstractMojo {
                     }
                 } else if (lastline.length() < 3) {
                     // do nothing
-                } else if (line.length() >= 5 &&
-                        isHeader(line, "-", lastline.length())) {
-                    // lastline is a title or subtitle
+                } else if ((h = Underline.classify(line, lastline.length()))
+                                        != Underline.NONE) {
+                    // lastline is a title, subtitle, subsubtitle,
+                    // or subsubsubtitle
+                    if (Underline.isMismatch(h)) {
+                        ps.mismatches++;
+                        page.warnings.add(file + ":" + lineno +
+                                        ": header line length mismatch:");
+                        page.warnings.add(lastline);
+                        page.warnings.add(line);
+                    }
                     if (biglink.isEmpty())
                         biglink = smalllink;
-                    if (isChapter(lastline)) {
+                    header = true;
+                    section = lastline;
+                    place(page, unplaced, unplacedLines, section);
+                    text = 0;
+                    int level = Underline.level(h);
+                    boolean chapter = false;
+                    if (level == 1) {
+                        ps.regex++;
+                        chapter = isChapter(lastline);
+                    }
+                    if (chapter) {
                         // it's a chapter title
-                        tout.println();
-                        if (!link.isEmpty())
-                            tout.printf("[[%s]]%n", link);
-                        String linkline = String.format("link:%s#%s[%s]",
-                                                file.replace(".adoc", ".html"),
-                                                biglink, lastline);
-                        tout.println(linkline);
-                        tout.println(headerLine('~', linkline.length()));
-                        tout.println();
+                        page.entries.add(new TocEntry(TocEntry.CHAPTER,
+                                        file, biglink, lastline,
+                                        link.isEmpty() ? null : link));
                     } else {
-                        // it's a subtitle
-                        tout.printf("* link:%s#%s[%s]\n",
-                                                file.replace(".adoc", ".html"),
-                                                biglink, lastline);
+                        page.entries.add(new TocEntry(level,
+                                        file, biglink, lastline, null));
                     }
                     link = "";
                     biglink = "";
                     smalllink = "";
                     seenNonEmpty = false;
-                } else if (isHeader(line, "~", lastline.length())) {
-                    // lastline is a subsubtitle
-                    if (biglink.isEmpty())
-                        biglink = smalllink;
-                    tout.printf("** link:%s#%s[%s]\n",
-                                                file.replace(".adoc", ".html"),
-                                                biglink, lastline);
-                    link = "";
-                    biglink = "";
-                    smalllink = "";
-                    seenNonEmpty = false;
-                } else if (isHeader(line, "\\^", lastline.length())) {
-                    // lastline is a subsubsubtitle
-                    if (biglink.isEmpty())
-                        biglink = smalllink;
-                    tout.printf("*** link:%s#%s[%s]\n",
-                                                file.replace(".adoc", ".html"),
-                                                biglink, lastline);
-                    link = "";
-                    biglink = "";
-                    smalllink = "";
-                    seenNonEmpty = false;
                 } else if (!line.isEmpty()) {
                     seenNonEmpty = true;
                 }
+                if (!tagLine && !header && !line.isEmpty() &&
+                        !unplaced.isEmpty() && text++ > 0) {
+                    place(page, unplaced, unplacedLines, section);
+                    text = 0;
+                }
                 lastline = line;
             }
-        } catch (FileNotFoundException fex) {
-            log.warn(in.toString() + ": can not open");
+            place(page, unplaced, unplacedLines, section);
+            ps.lines = lineno - fm.lineCount();
         }
+        ps.parseTime = System.nanoTime() - t1;
+        return page;
     }
 
     /**
-     * Should this tag be ignored?
+     * Add the unplaced anchors to the page, in the given section.
      */
-    private boolean ignoreTag(String tag) {
-        for (String t : tagList) {
-            if (tag.matches(t))
-                return true;
-        }
-        return false;
+    private static void place(TocPage page, List<String> unplaced,
+                                List<Integer> lines, String section) {
+        for (int i = 0; i < unplaced.size(); i++)
+            page.anchors.add(new AnchorIndex.Anchor(unplaced.get(i),
+                                    page.file, lines.get(i), section));
+        unplaced.clear();
+        lines.clear();
     }
 
     /**
-     * Is line a header line of length len using hchar?
-     * Also, warn about header lines that may not have the correct
-     * amount of "underlining".
-     */
-    private boolean isHeader(String line, String hchar, int len) {
-	if (line.length() == 0)
-	    return false;
-	if (line.length() == len)
-	    return line.matches(hchar + "{" + len + "}");
-	if (len > HEADER_SLOP &&
-		line.length() >= len - HEADER_SLOP &&
-		line.length() <= len + HEADER_SLOP &&
-		line.matches(hchar + "{" + (len-HEADER_SLOP) + "," +
-					(len+HEADER_SLOP+1) + "}")) {
-	    log.warn(curfile + ":" + lineno + ": header line length mismatch:");
-	    log.warn(lastline);
-	    log.warn(line);
-	    return true;
-	}
-	return false;
+     * Should this tag be ignored?  Tags not checked before are
+     * counted in ps.
+     */
+    private boolean ignoreTag(String tag, RunReport.Page ps) {
+        Boolean ignore = ignoredTags.get(tag);
+        if (ignore == null) {
+            ps.regex++;
+            ignore = tagList.matches(tag);
+            ignoredTags.put(tag, ignore);
+        }
+        return ignore;
     }
 
     /**
-     * Return a header line of length len using hchar.
+     * Is the tag (which is known to match tagPattern) made up of only
+     * upper case letters and digits, or also lower case letters if
+     * lower is true?  Same as matching "[A-Z0-9]+" or "[a-zA-Z0-9]+".
      */
-    private static String headerLine(char hchar, int len) {
-        char[] c = new char[len];
-        Arrays.fill(c, hchar);
-        return new String(c);
+    private static boolean isAlnum(String tag, boolean lower) {
+        for (int i = 0; i < tag.length(); i++) {
+            char c = tag.charAt(i);
+            if (c == '-' || (!lower && c >= 'a' && c <= 'z'))
+                return false;
+        }
+        return true;
     }
 
     /**
      * Is the string a chapter title?
      */
-    private boolean isChapter(String s) {
-        for (String p : chapterList) {
-            if (s.matches(p))
-                return true;
-        }
-        return false;
+    boolean isChapter(String s) {
+        return chapterList.matches(s);
     }
 }
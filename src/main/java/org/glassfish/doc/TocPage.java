@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+import java.util.*;
+
+/**
+ * The information extracted from one page by the toc goal.
+ */
+final class TocPage {
+    String file;	// name of the page in the source directory
+    String title;	// "title" from the header
+    String next;	// "next" link
+    String prev;	// "prev" link
+    List<TocEntry> entries = new ArrayList<>();	// TOC entries, in order
+    List<AnchorIndex.Anchor> anchors = new ArrayList<>();	// all anchors
+    List<String> warnings = new ArrayList<>();	// to be logged, in order
+    boolean cacheable = true;	// false if the page couldn't be read
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.doc;
+
+/**
+ * Classify the "underline" of a two line asciidoc section title.
+ *
+ * The result of classify is an int holding the section level
+ * (1 for "-", 2 for "~", 3 for "^", or NONE if the line is not
+ * an underline) plus the MISMATCH bit if the underline length
+ * is within SLOP of, but not equal to, the title length.
+ * Use level and isMismatch to take the result apart.
+ */
+final class Underline {
+    static final int NONE = 0;
+    static final int MISMATCH = 0x100;
+
+    // amount of slop to allow in "underlines" for section header lines
+    static final int SLOP = 5;
+
+    private Underline() { }
+
+    /**
+     * Classify line as the underline for a title of length len.
+     * The line is scanned at most once and nothing is allocated.
+     */
+    static int classify(String line, int len) {
+        int n = line.length();
+        if (n == 0)
+            return NONE;
+        char c = line.charAt(0);
+        int level;
+        if (c == '-' && n >= 5)     // "----" is a listing block delimiter
+            level = 1;
+        else if (c == '~')
+            level = 2;
+        else if (c == '^')
+            level = 3;
+        else
+            return NONE;
+        int result;
+        if (n == len)
+            result = level;
+        else if (len > SLOP && n >= len - SLOP && n <= len + SLOP)
+            result = level | MISMATCH;
+        else
+            return NONE;
+        for (int i = 1; i < n; i++) {
+            if (line.charAt(i) != c)
+                return NONE;
+        }
+        return result;
+    }
+
+    /**
+     * The section level from the result of classify.
+     */
+    static int level(int h) {
+        return h & 0xff;
+    }
+
+    /**
+     * Was the underline length wrong?
+     */
+    static boolean isMismatch(int h) {
+        return (h & MISMATCH) != 0;
+    }
+}
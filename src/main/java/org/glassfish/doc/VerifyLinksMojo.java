@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.*;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Check the cross references in asciidoc jbake projects.
+ *
+ * Follows the chain of pages as the toc goal does, collecting the
+ * anchors in each page, then checks that the target of each
+ * link:page.html#anchor[...] and &lt;&lt;anchor&gt;&gt; reference
+ * in the pages exists.  Links to other sites, and to pages outside
+ * the source directory, are not checked.
+ */
+@Mojo(name = "verify-links", defaultPhase = LifecyclePhase.VERIFY)
+public class VerifyLinksMojo extends AbstractMojo {
+    /**
+     * Name of the title page file.
+     * The chain of pages starts with this file.
+     */
+    @Parameter(property = "toc.titlepage", defaultValue = "title.adoc")
+    protected String titlePage;
+
+    /**
+     * Regular expressions that indicate a new chapter.
+     * Should be the same as for the toc goal, so the cache can be shared.
+     */
+    @Parameter(property = "toc.chapterpatterns", defaultValue = "[0-9]+\\s.*")
+    protected String chapterPatterns;
+
+    /**
+     * Regular expressions of tags that should be ignored.
+     * Should be the same as for the toc goal, so the cache can be shared.
+     */
+    @Parameter(property = "toc.tagpatterns", defaultValue = "")
+    protected String ignoreTagPatterns;
+
+    /**
+     * Encoding of the pages.
+     * Should be the same as for the toc goal, so the cache can be shared.
+     */
+    @Parameter(property = "toc.encoding", defaultValue = "UTF-8")
+    protected String encoding;
+
+    /**
+     * Jbake directory containing the asciidoc files.
+     */
+    @Parameter(property = "verify.dir",
+		defaultValue = "${project.basedir}/src/main/jbake/content")
+    protected File sourceDirectory;
+
+    /**
+     * File used to cache the information extracted from each page,
+     * shared with the toc goal.
+     */
+    @Parameter(property = "toc.cache",
+		defaultValue = "${project.build.directory}/toc.cache")
+    protected File cacheFile;
+
+    /**
+     * Number of threads used to read pages.
+     * Defaults to the number of processors.
+     */
+    @Parameter(property = "verify.threads", defaultValue = "0")
+    protected int threads;
+
+    /**
+     * Fail the build if any references can't be resolved.
+     */
+    @Parameter(property = "verify.failOnError", defaultValue = "true")
+    protected boolean failOnError;
+
+    /**
+     * Log output, initialize this in the execute method.
+     */
+    protected Log log;
+
+    private Charset charset;	// charset for encoding
+
+    // link:page.html#anchor[text], but not link:http://...
+    private static final Pattern LINK =
+        Pattern.compile("link:([^\\[\\s:#]+\\.html)(?:#([^\\[\\s]*))?\\[");
+    // <<anchor>>, <<anchor,text>>, or <<page.adoc#anchor,text>>
+    private static final Pattern XREF =
+        Pattern.compile("<<([^<>,\\s]+)(?:,[^>]*)?>>");
+    // anchors that aren't on a line by themselves, [#id], and anchor:id[]
+    private static final Pattern ANCHOR = Pattern.compile(
+        "\\[\\[([^\\[\\],\\s]+)(?:,[^\\]]*)?]]|\\[#([^\\[\\].,%\\s]+)|" +
+        "anchor:([^\\[\\s]+)\\[");
+
+    /**
+     * The anchors and references found in one page.
+     */
+    private static final class Scan {
+        final String file;
+        final Set<String> anchors = new HashSet<>();	// not in the index
+        final List<Ref> refs = new ArrayList<>();
+
+        Scan(String file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * A reference to an anchor, and possibly a page, from a page.
+     */
+    private static final class Ref {
+        final int line;
+        final String page;	// source file name, or null for any page
+        final String anchor;	// may be empty
+
+        Ref(int line, String page, String anchor) {
+            this.line = line;
+            this.page = page;
+            this.anchor = anchor;
+        }
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        log = getLog();
+
+        if (log.isDebugEnabled()) {
+            log.debug("sourceDirectory " + sourceDirectory);
+            log.debug("titlePage " + titlePage);
+            log.debug("cacheFile " + cacheFile);
+            log.debug("threads " + threads);
+            log.debug("failOnError " + failOnError);
+        }
+
+        int errors;
+        try {
+            errors = verify();
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Can't verify links", ex);
+        }
+        if (errors > 0) {
+            String msg = errors + " unresolved reference" +
+                            (errors == 1 ? "" : "s");
+            if (failOnError)
+                throw new MojoFailureException(msg);
+            log.warn(msg);
+        }
+    }
+
+    /**
+     * Check all the references, and return the number that
+     * can't be resolved.
+     */
+    int verify() throws IOException, MojoExecutionException {
+        /*
+         * Find the anchors in each page, as the toc goal does,
+         * keeping the pages it reads to find the references in.
+         */
+        TocMojo tocMojo = new TocMojo();
+        tocMojo.setLog(log);
+        tocMojo.log = log;
+        tocMojo.titlePage = titlePage;
+        tocMojo.chapterPatterns = chapterPatterns;
+        tocMojo.ignoreTagPatterns = ignoreTagPatterns;
+        tocMojo.encoding = encoding;
+        tocMojo.sourceDirectory = sourceDirectory;
+        tocMojo.cacheFile = cacheFile;
+        tocMojo.init();
+        charset = tocMojo.charset;
+
+        List<TocPage> pages;
+        Map<String, SourcePage> sources = new HashMap<>();
+        List<Scan> scans;
+        ForkJoinPool pool = Parallel.pool(threads);
+        try {
+            tocMojo.sharedPool = pool;
+            for (String file : tocMojo.chain()) {
+                SourcePage sp = tocMojo.source(file);
+                if (sp != null)
+                    sources.put(file, sp);
+                tocMojo.add(file, sp);
+            }
+            tocMojo.parse();
+            tocMojo.saveCache();
+
+            pages = tocMojo.pages();
+            /*
+             * Find the references, and any other anchors, in parallel.
+             */
+            scans = Parallel.map(pool, pages,
+                                    p -> scan(p.file, sources.get(p.file)));
+        } finally {
+            pool.shutdown();
+        }
+
+        AnchorIndex index = AnchorIndex.of(pages, log);
+        Map<String, Set<String>> anchors = new HashMap<>();
+        for (TocPage p : pages) {
+            for (String w : p.warnings) {
+                if (w.endsWith(": can not open"))
+                    log.warn(w);
+            }
+            Set<String> s = new HashSet<>();
+            for (AnchorIndex.Anchor a : p.anchors)
+                s.add(a.name);
+            anchors.put(p.file, s);
+        }
+        Map<String, String> others = new HashMap<>();	// anchor -> page
+        for (Scan s : scans) {
+            anchors.get(s.file).addAll(s.anchors);
+            for (String a : s.anchors)
+                others.putIfAbsent(a, s.file);
+        }
+
+        /*
+         * Check the references.
+         */
+        int errors = 0;
+        for (Scan s : scans) {
+            for (Ref r : s.refs) {
+                String msg = check(r, index, anchors, others);
+                if (msg != null) {
+                    log.error(s.file + ":" + r.line + ": " + msg);
+                    errors++;
+                }
+            }
+        }
+        log.info(String.format("Checked %d pages, %d unresolved references",
+                                pages.size(), errors));
+        return errors;
+    }
+
+    /**
+     * Return an error message if the reference can't be resolved,
+     * otherwise null.
+     */
+    private String check(Ref r, AnchorIndex index,
+                        Map<String, Set<String>> anchors,
+                        Map<String, String> others) {
+        if (r.page == null) {
+            if (index.contains(r.anchor) || others.containsKey(r.anchor))
+                return null;
+            return "no anchor " + r.anchor;
+        }
+        Set<String> pa = anchors.get(r.page);
+        if (pa == null) {
+            if (new File(sourceDirectory, r.page).isFile())
+                return null;    // a page that's not in the chain
+            return "no page " + r.page;
+        }
+        if (r.anchor.isEmpty() || pa.contains(r.anchor))
+            return null;
+        String in = index.file(r.anchor);
+        if (in == null)
+            in = others.get(r.anchor);
+        return "no anchor " + r.anchor + " in " + r.page +
+                (in != null ? " (it's in " + in + ")" : "");
+    }
+
+    /**
+     * Find the references and the anchors that aren't in the
+     * anchor index in the named page, using sp if the page has
+     * already been read.  Listing and literal blocks are skipped.
+     */
+    private Scan scan(String file, SourcePage sp) throws IOException {
+        Scan scan = new Scan(file);
+        if (sp == null) {
+            try {
+                sp = SourcePage.read(sourceDirectory, file, charset);
+            } catch (FileNotFoundException fex) {
+                return scan;    // already reported
+            }
+        }
+        byte[] buf = sp.content;
+        FrontMatter fm = sp.header;
+        try (LineReader r = FrontMatter.reader(buf, fm.bodyOffset(),
+                                                charset)) {
+            String line;
+            int lineno = fm.lineCount();
+            String block = null;        // delimiter of the current block
+            String lastline = "";
+            while ((line = r.readLine()) != null) {
+                lineno++;
+                if (block != null) {
+                    if (line.equals(block))
+                        block = null;
+                    continue;
+                }
+                if (isDelimiter(line, lastline)) {
+                    block = line;
+                    continue;
+                }
+                lastline = line;
+                if (line.indexOf("[[") >= 0 || line.indexOf("[#") >= 0 ||
+                        line.indexOf("anchor:") >= 0) {
+                    Matcher m = ANCHOR.matcher(line);
+                    while (m.find()) {
+                        for (int g = 1; g <= 3; g++) {
+                            if (m.group(g) != null)
+                                scan.anchors.add(m.group(g));
+                        }
+                    }
+                }
+                if (line.indexOf("link:") >= 0) {
+                    Matcher m = LINK.matcher(line);
+                    while (m.find()) {
+                        String page = m.group(1);
+                        if (page.indexOf('/') >= 0)
+                            continue;   // not in the source directory
+                        String anchor = m.group(2);
+                        scan.refs.add(new Ref(lineno,
+                                        page.replace(".html", ".adoc"),
+                                        anchor != null ? anchor : ""));
+                    }
+                }
+                if (line.indexOf("<<") >= 0) {
+                    Matcher m = XREF.matcher(line);
+                    while (m.find()) {
+                        String target = m.group(1);
+                        int i = target.indexOf('#');
+                        if (i < 0) {
+                            scan.refs.add(new Ref(lineno, null, target));
+                        } else {
+                            String page = target.substring(0, i);
+                            if (page.indexOf('/') >= 0)
+                                continue;
+                            if (!page.endsWith(".adoc"))
+                                page += ".adoc";
+                            scan.refs.add(new Ref(lineno, page,
+                                                target.substring(i + 1)));
+                        }
+                    }
+                }
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Is the line the delimiter of a listing, literal, passthrough,
+     * or comment block, e.g., "----"?  It's not if it's the underline
+     * of a section title, i.e., if the previous line is text rather
+     * than empty, a block title, or a block attribute list.
+     */
+    private static boolean isDelimiter(String line, String lastline) {
+        if (line.length() < 4)
+            return false;
+        if (!lastline.isEmpty() && !lastline.startsWith(".") &&
+                !(lastline.startsWith("[") && lastline.endsWith("]")))
+            return false;
+        char c = line.charAt(0);
+        if (c != '-' && c != '.' && c != '+' && c != '/')
+            return false;
+        for (int i = 1; i < line.length(); i++) {
+            if (line.charAt(i) != c)
+                return false;
+        }
+        return true;
+    }
+}
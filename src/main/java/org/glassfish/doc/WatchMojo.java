@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package org.glassfish.doc;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Generate the Table of Contents (TOC) and the asciidoc book,
+ * as the site goal does, then watch the source directory and
+ * update them whenever anything in it changes, until interrupted.
+ *
+ * Only the pages that have changed are parsed or written again;
+ * the other pages are found in the TOC cache and the book manifest
+ * without reading them.  Changes to the files this goal writes,
+ * e.g., the TOC file, are ignored.
+ */
+@Mojo(name = "watch")
+public class WatchMojo extends SiteMojo {
+    /**
+     * Milliseconds to wait after a change for more changes,
+     * so that a burst of changes causes only one update.
+     */
+    @Parameter(property = "watch.debounce", defaultValue = "50")
+    protected int debounce;
+
+    private TocCache cache;		// from the previous update
+    private BookManifest manifest;	// from the previous update
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        log = getLog();
+        if (books != null && !books.isEmpty())
+            log.warn("books are ignored, watching " + sourceDirectory);
+
+        try (WatchService ws = FileSystems.getDefault().newWatchService()) {
+            register(ws, sourceDirectory.toPath());
+            update();
+            log.info("Watching " + sourceDirectory + " for changes");
+            for (;;) {
+                WatchKey key = ws.take();
+                boolean changed = false;
+                // collect events until there are none for a while
+                do {
+                    changed |= changed(ws, key);
+                    key.reset();
+                } while ((key = ws.poll(debounce, TimeUnit.MILLISECONDS))
+                                != null);
+                if (changed) {
+                    long t0 = System.nanoTime();
+                    update();
+                    log.info(String.format("Updated in %d ms",
+                                    (System.nanoTime() - t0) / 1000000));
+                }
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Can't watch " +
+                                                sourceDirectory, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Update the TOC and the book.  The chain of pages is followed
+     * using the TOC's information for each page, so that pages in
+     * the cache aren't read at all.  The cache and the manifest are
+     * kept in memory between updates.
+     */
+    void update() throws MojoExecutionException {
+        TocMojo tocMojo = tocMojo();
+        BookMojo bookMojo = bookMojo();
+        tocMojo.init(cache);
+        bookMojo.init(manifest);
+        cache = tocMojo.cache();
+        manifest = bookMojo.manifest();
+        tocMojo.index = bookMojo.index();       // scan the files once
+        try {
+            SourcePage start = SourcePage.read(sourceDirectory, titlePage,
+                                                tocMojo.charset);
+            tocMojo.begin(start);
+            bookMojo.begin(start);
+            for (String file : tocMojo.chain()) {
+                SourcePage sp = file.equals(titlePage) ? start :
+                                    tocMojo.source(file);
+                tocMojo.add(file, sp);
+                bookMojo.update(file, sp);
+            }
+            tocMojo.parse();
+            tocMojo.end();
+            bookMojo.end();
+        } catch (IOException ex) {
+            log.error(ex);
+        } finally {
+            // the next update creates new ones
+            tocMojo.shutdown();
+            bookMojo.shutdown();
+        }
+    }
+
+    /**
+     * Watch the directory and all its subdirectories,
+     * except the book directory.
+     */
+    private void register(final WatchService ws, Path dir)
+                                throws IOException {
+        final Path book = bookDirectory.toPath().toAbsolutePath();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path d,
+                                BasicFileAttributes attrs) throws IOException {
+                if (d.toAbsolutePath().equals(book))
+                    return FileVisitResult.SKIP_SUBTREE;
+                d.register(ws, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Did the events for the key change any of our inputs?
+     * New directories are watched too.
+     */
+    private boolean changed(WatchService ws, WatchKey key)
+                                throws IOException {
+        boolean changed = false;
+        Path dir = (Path)key.watchable();
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.kind() == OVERFLOW) {
+                changed = true;         // don't know what changed
+                continue;
+            }
+            Path p = dir.resolve((Path)ev.context());
+            if (isOutput(p))
+                continue;
+            if (log.isDebugEnabled())
+                log.debug(ev.kind().name() + " " + p);
+            if (ev.kind() == ENTRY_CREATE && Files.isDirectory(p))
+                register(ws, p);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Is the file one that we write, or a temporary file used
+     * to write one?
+     */
+    private boolean isOutput(Path p) {
+        File f = p.toFile().getAbsoluteFile();
+        if (OutputFile.isTemporary(f.getName()))
+            return true;
+        if (f.toPath().startsWith(bookDirectory.getAbsoluteFile().toPath()))
+            return true;
+        for (File o : new File[] { new File(sourceDirectory, toc), tocJson,
+                            tocHtml, anchorIndex, cacheFile, manifestFile }) {
+            if (o != null && f.equals(o.getAbsoluteFile()))
+                return true;
+        }
+        return false;
+    }
+}